@@ -0,0 +1,74 @@
+package com.service.post.common;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressedTextConverterBenchmark {
+  @Param({ "1", "16", "256" })
+  int paragraphs;
+
+  String content;
+  int contentBytes;
+  byte[] encoded;
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class StorageCounters {
+    public long rawBytes;
+    public long storedBytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      rawBytes = 0;
+      storedBytes = 0;
+    }
+  }
+
+  @Setup
+  public void setup() {
+    StringBuilder html = new StringBuilder();
+    for (int i = 0; i < paragraphs; i++) {
+      html.append("<h2>Mục ").append(i).append("</h2><p>Đoạn văn thử nghiệm với <strong>nội dung</strong> ")
+          .append("tiếng Việt, <a href=\"https://example.com/bai-viet/").append(i).append("\">liên kết</a> và ")
+          .append("<code>mã nguồn</code> minh họa cho bài viết số ").append(i).append(".</p>")
+          .append("<p><img alt=\"ảnh ").append(i).append("\" src=\"https://ik.imagekit.io/post/bai-viet-")
+          .append(i).append(".png\"></p>");
+    }
+    content = html.toString();
+    contentBytes = content.getBytes(StandardCharsets.UTF_8).length;
+    encoded = CompressedTextConverter.encode(content);
+  }
+
+  @Benchmark
+  public byte[] encode(StorageCounters counters) {
+    byte[] data = CompressedTextConverter.encode(content);
+    counters.rawBytes += contentBytes;
+    counters.storedBytes += data.length;
+    return data;
+  }
+
+  @Benchmark
+  public String decode() {
+    return CompressedTextConverter.decode(encoded);
+  }
+}
@@ -0,0 +1,112 @@
+package com.service.post.common;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.service.post.common.InlineImageScanner.ImageSource;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xms2g", "-Xmx2g" })
+public class InlineImageScannerBenchmark {
+  @Param({ "1", "10" })
+  int imageCount;
+
+  @Param({ "64", "2048" })
+  int imageKb;
+
+  String content;
+  String placeholderContent;
+  Map<String, String> urlsByImageId;
+
+  @Setup
+  public void setup() {
+    content = PostContentFixtures.postWithInlineImages(imageCount, imageKb, new Random(42));
+    urlsByImageId = new HashMap<>();
+    for (int i = 0; i < imageCount; i++) {
+      urlsByImageId.put("image-" + i, "https://ik.imagekit.io/post/image-" + i + ".png");
+    }
+    placeholderContent = PostContentFixtures.postWithPlaceholders(urlsByImageId.keySet());
+  }
+
+  @Benchmark
+  public void jsoupExtract(Blackhole bh) {
+    Document doc = Jsoup.parse(content);
+    Elements imgTags = doc.select("img[src^=data:image]");
+    for (Element img : imgTags) {
+      String src = img.attr("src");
+      String base64Data = src.substring(src.indexOf(",") + 1);
+      bh.consume(src);
+      bh.consume(base64Data);
+    }
+    bh.consume(doc.body().html());
+  }
+
+  @Benchmark
+  public void scannerExtractAndRewrite(Blackhole bh) {
+    List<ImageSource> dataImages = InlineImageScanner.scan(content).stream().filter(ImageSource::isDataImage)
+        .toList();
+    Map<ImageSource, String> placeholders = new HashMap<>();
+    int i = 0;
+    for (ImageSource source : dataImages) {
+      bh.consume(source.base64Data(content));
+      placeholders.put(source, InlineImageScanner.placeholder("image-" + i++));
+    }
+    bh.consume(InlineImageScanner.rewrite(content, dataImages, placeholders::get));
+  }
+
+  @Benchmark
+  public String replacePlaceholders() {
+    return InlineImageScanner.replacePlaceholders(placeholderContent, urlsByImageId);
+  }
+
+  static class PostContentFixtures {
+    static String postWithInlineImages(int imageCount, int imageKb, Random random) {
+      List<String> paragraphs = new ArrayList<>();
+      for (int i = 0; i < imageCount; i++) {
+        byte[] image = new byte[imageKb * 1024];
+        random.nextBytes(image);
+        paragraphs.add("<p>Đoạn văn " + i + " với một chút <strong>nội dung</strong> xung quanh ảnh.</p>");
+        paragraphs.add("<p><img alt=\"image " + i + "\" src=\"data:image/png;base64,"
+            + Base64.getEncoder().encodeToString(image) + "\"></p>");
+      }
+      return String.join("\n", paragraphs);
+    }
+
+    static String postWithPlaceholders(Collection<String> imageIds) {
+      List<String> paragraphs = new ArrayList<>();
+      for (String imageId : imageIds) {
+        paragraphs.add("<p>Đoạn văn với một chút <strong>nội dung</strong> xung quanh ảnh " + imageId + ".</p>");
+        paragraphs.add("<p><img alt=\"" + imageId + "\" src=\"" + InlineImageScanner.placeholder(imageId)
+            + "\"></p>");
+      }
+      return String.join("\n", paragraphs);
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package com.service.post.common;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SlugUtilBenchmark {
+  private static final String TITLE = "Hướng dẫn tối ưu hiệu năng dịch vụ bài viết với Spring Boot & gRPC ";
+
+  @Param({ "1", "4" })
+  int repeat;
+
+  String title;
+
+  @Setup
+  public void setup() {
+    title = TITLE.repeat(repeat).trim();
+  }
+
+  @Benchmark
+  public String toSlug() {
+    return SlugUtil.toSlug(title);
+  }
+}
@@ -0,0 +1,76 @@
+package com.service.post.controller;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.service.post.GetAllPostsAdminRequest;
+import com.service.post.GetAllRequest;
+import com.service.post.PostApplication;
+import com.service.post.PostServiceGrpc;
+import com.service.post.PostsAdminResponse;
+import com.service.post.TopicsResponse;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+
+/*
+ * Needs the local Postgres, Redis and RabbitMQ from application.properties, e.g.
+ * ./mvnw -Pjmh test-compile exec:exec -Djmh.args="ExecutionModeBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(128)
+public class ExecutionModeBenchmark {
+  private static final int PORT = 19084;
+
+  @Param({ "false", "true" })
+  String virtualThreads;
+
+  ConfigurableApplicationContext context;
+  ManagedChannel channel;
+  PostServiceGrpc.PostServiceBlockingStub stub;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    context = new SpringApplicationBuilder(PostApplication.class)
+        .properties("spring.grpc.server.port=" + PORT, "spring.threads.virtual.enabled=" + virtualThreads).run();
+    channel = ManagedChannelBuilder.forAddress("localhost", PORT).usePlaintext().build();
+    stub = PostServiceGrpc.newBlockingStub(channel);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+    context.close();
+  }
+
+  @Benchmark
+  public PostsAdminResponse getAllPostsAdmin() {
+    return stub.getAllPostsAdmin(GetAllPostsAdminRequest.newBuilder().setLimit(20).build());
+  }
+
+  @Benchmark
+  public TopicsResponse getAllTopics() {
+    return stub.getAllTopics(GetAllRequest.getDefaultInstance());
+  }
+}
@@ -0,0 +1,73 @@
+package com.service.post.dto;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xms2g", "-Xmx2g" })
+public class Base64UploadDtoBenchmark {
+  @Param({ "1024", "4096", "8192" })
+  int imageKb;
+
+  ObjectMapper objectMapper = new ObjectMapper();
+  Jackson2JsonMessageConverter messageConverter = new Jackson2JsonMessageConverter();
+
+  Base64UploadDto dto;
+  String json;
+  Message message;
+
+  @Setup
+  public void setup() throws IOException {
+    byte[] image = new byte[imageKb * 1024];
+    new Random(42).nextBytes(image);
+    dto = Base64UploadDto.builder().imageId(UUID.randomUUID().toString())
+        .base64Data(Base64.getEncoder().encodeToString(image)).fileName("image.png").folder("posts")
+        .postId(UUID.randomUUID().toString()).totalImages(4).userId(UUID.randomUUID().toString()).build();
+    json = objectMapper.writeValueAsString(dto);
+    message = messageConverter.toMessage(dto, new MessageProperties());
+  }
+
+  @Benchmark
+  public String outboxSerialize() throws IOException {
+    return objectMapper.writeValueAsString(dto);
+  }
+
+  @Benchmark
+  public Base64UploadDto outboxDeserialize() throws IOException {
+    return objectMapper.readValue(json, Base64UploadDto.class);
+  }
+
+  @Benchmark
+  public Message amqpToMessage() {
+    return messageConverter.toMessage(dto, new MessageProperties());
+  }
+
+  @Benchmark
+  public Object amqpFromMessage() {
+    return messageConverter.fromMessage(message);
+  }
+}
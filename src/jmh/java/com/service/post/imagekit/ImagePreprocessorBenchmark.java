@@ -0,0 +1,180 @@
+package com.service.post.imagekit;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.service.post.dto.Base64UploadDto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/*
+ * "corpus" reads every .jpg/.jpeg/.png under -Dimage.corpus=<dir>, e.g.
+ * ./mvnw -Pjmh test-compile exec:exec -Djmh.args="ImagePreprocessorBenchmark -jvmArgs -Dimage.corpus=/data/samples"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ImagePreprocessorBenchmark {
+  @Param({ "photo", "screenshot", "small", "corpus" })
+  String sample;
+
+  @Param({ "false", "true" })
+  boolean thumbnail;
+
+  ImagePreprocessor preprocessor;
+  List<Base64UploadDto> uploads;
+  long inputChars;
+  long outputChars;
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class SizeCounters {
+    public long inputChars;
+    public long outputChars;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      inputChars = 0;
+      outputChars = 0;
+    }
+  }
+
+  @Setup
+  public void setup() throws IOException {
+    preprocessor = new ImagePreprocessor(new SimpleMeterRegistry(), true, 2048, 320, 0.82f);
+
+    List<byte[]> images = new ArrayList<>();
+    List<String> extensions = new ArrayList<>();
+    switch (sample) {
+      case "photo" -> {
+        images.add(write(photo(4032, 3024), "jpeg"));
+        extensions.add("jpg");
+      }
+      case "screenshot" -> {
+        images.add(write(screenshot(2880, 1800), "png"));
+        extensions.add("png");
+      }
+      case "small" -> {
+        images.add(write(screenshot(640, 360), "png"));
+        extensions.add("png");
+      }
+      default -> {
+        String dir = System.getProperty("image.corpus");
+        if (dir == null) {
+          images.add(write(photo(4032, 3024), "jpeg"));
+          extensions.add("jpg");
+          images.add(write(screenshot(2880, 1800), "png"));
+          extensions.add("png");
+        } else {
+          try (Stream<Path> files = Files.list(Path.of(dir))) {
+            for (Path file : files.sorted().toList()) {
+              String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+              if (name.endsWith(".jpg") || name.endsWith(".jpeg") || name.endsWith(".png")) {
+                images.add(Files.readAllBytes(file));
+                extensions.add(name.substring(name.lastIndexOf('.') + 1));
+              }
+            }
+          }
+        }
+      }
+    }
+
+    uploads = new ArrayList<>();
+    inputChars = 0;
+    outputChars = 0;
+    for (int i = 0; i < images.size(); i++) {
+      Base64UploadDto upload = Base64UploadDto.builder().imageId("image-" + i).fileName("bai-viet_" + i + "."
+          + extensions.get(i)).base64Data(Base64.getEncoder().encodeToString(images.get(i))).thumbnail(thumbnail)
+          .build();
+      uploads.add(upload);
+      inputChars += upload.getBase64Data().length();
+      outputChars += preprocessor.prepare(upload).getImage().getBase64Data().length();
+    }
+  }
+
+  @Benchmark
+  public void prepare(Blackhole blackhole, SizeCounters counters) {
+    for (Base64UploadDto upload : uploads) {
+      blackhole.consume(preprocessor.prepare(upload));
+    }
+    counters.inputChars += inputChars;
+    counters.outputChars += outputChars;
+  }
+
+  private static BufferedImage photo(int width, int height) {
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    g.setPaint(new GradientPaint(0, 0, new Color(40, 90, 160), width, height, new Color(230, 180, 90)));
+    g.fillRect(0, 0, width, height);
+    g.dispose();
+
+    Random random = new Random(42);
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        int rgb = image.getRGB(x, y);
+        int noise = random.nextInt(24) - 12;
+        int r = Math.clamp(((rgb >> 16) & 0xFF) + noise, 0, 255);
+        int gr = Math.clamp(((rgb >> 8) & 0xFF) + noise, 0, 255);
+        int b = Math.clamp((rgb & 0xFF) + noise, 0, 255);
+        image.setRGB(x, y, (r << 16) | (gr << 8) | b);
+      }
+    }
+    return image;
+  }
+
+  private static BufferedImage screenshot(int width, int height) {
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    g.setColor(Color.WHITE);
+    g.fillRect(0, 0, width, height);
+    g.setColor(new Color(245, 245, 245));
+    g.fillRect(0, 0, width / 5, height);
+    g.setColor(Color.DARK_GRAY);
+    g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 16));
+    for (int y = 40; y < height; y += 24) {
+      g.drawString("Dòng mã nguồn minh họa số " + y + " trong ảnh chụp màn hình", width / 5 + 20, y);
+    }
+    g.dispose();
+    return image;
+  }
+
+  private static byte[] write(BufferedImage image, String format) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ImageIO.write(image, format, out);
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,102 @@
+package com.service.post.service;
+
+import java.util.Base64;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.service.post.CreatePostRequest;
+import com.service.post.CreatePostsRequest;
+import com.service.post.CreateTopicRequest;
+import com.service.post.PostApplication;
+
+/*
+ * Needs the local Postgres, Redis and RabbitMQ from application.properties, e.g.
+ * ./mvnw -Pjmh test-compile exec:exec -Djmh.args="CreatePostsBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class CreatePostsBenchmark {
+  private static final int BATCH_SIZE = 100;
+
+  @Param({ "0", "2" })
+  int imagesPerPost;
+
+  ConfigurableApplicationContext context;
+  PostService postService;
+  String topicId;
+  String userId;
+  String runId;
+  AtomicLong sequence = new AtomicLong();
+  Random random = new Random(42);
+
+  @Setup(Level.Trial)
+  public void setup() {
+    context = new SpringApplicationBuilder(PostApplication.class).properties("spring.grpc.server.port=0").run();
+    postService = context.getBean(PostService.class);
+    userId = UUID.randomUUID().toString();
+    runId = Long.toString(System.nanoTime(), 36);
+    topicId = postService
+        .createTopic(CreateTopicRequest.newBuilder().setName("benchmark " + runId).setUserId(userId).build());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void createPostOneByOne(Blackhole bh) {
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      bh.consume(postService.createPost(nextPost()));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void createPostsBatched(Blackhole bh) {
+    CreatePostsRequest.Builder request = CreatePostsRequest.newBuilder();
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      request.addPosts(nextPost());
+    }
+    bh.consume(postService.createPosts(request.build()));
+  }
+
+  private CreatePostRequest nextPost() {
+    long n = sequence.incrementAndGet();
+    StringBuilder content = new StringBuilder("<p>Bài viết thử nghiệm ").append(n).append("</p>");
+    for (int i = 0; i < imagesPerPost; i++) {
+      byte[] image = new byte[4 * 1024];
+      random.nextBytes(image);
+      content.append("<p><img src=\"data:image/png;base64,").append(Base64.getEncoder().encodeToString(image))
+          .append("\"></p>");
+    }
+
+    return CreatePostRequest.newBuilder().setTitle("benchmark " + runId + " " + n).setContent(content.toString())
+        .setIsPublished(false).setTopicId(topicId).setUserId(userId).build();
+  }
+}
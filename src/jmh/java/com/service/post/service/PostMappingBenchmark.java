@@ -0,0 +1,73 @@
+package com.service.post.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.service.post.BaseUserResponse;
+import com.service.post.PostAdminResponse;
+import com.service.post.PostsAdminResponse;
+import com.service.post.dto.PostSummaryDto;
+import com.service.user.ProfileResponse;
+import com.service.user.UserPublicResponse;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostMappingBenchmark {
+  @Param({ "20", "100" })
+  int pageSize;
+
+  List<PostSummaryDto> rows;
+  UserPublicResponse user;
+
+  @Setup
+  public void setup() {
+    rows = new ArrayList<>();
+    String topicId = UUID.randomUUID().toString();
+    for (int i = 0; i < pageSize; i++) {
+      String thumbnailId = i % 3 == 0 ? null : UUID.randomUUID().toString();
+      rows.add(new PostSummaryDto(UUID.randomUUID().toString(), "Bài viết thử nghiệm số " + i, topicId,
+          "Lập trình", "lap-trinh", thumbnailId,
+          thumbnailId != null ? "https://ik.imagekit.io/post/" + thumbnailId + ".png" : null, null));
+    }
+
+    user = UserPublicResponse.newBuilder().setId(UUID.randomUUID().toString()).setUsername("nguyenvana")
+        .setEmail("nguyenvana@example.com").addRoles("ADMIN").setCreatedAt("2025-01-01T00:00:00")
+        .setProfile(ProfileResponse.newBuilder().setId(UUID.randomUUID().toString()).setFirstName("Văn A")
+            .setLastName("Nguyễn"))
+        .build();
+  }
+
+  @Benchmark
+  public String snakeToCamel() {
+    return PostServiceImpl.snakeToCamel("created_at_by_topic_name");
+  }
+
+  @Benchmark
+  public BaseUserResponse toBaseUserResponse() {
+    return PostServiceImpl.toBaseUserResponse(user);
+  }
+
+  @Benchmark
+  public byte[] postsPageToBytes() {
+    List<PostAdminResponse> posts = rows.stream().map(PostServiceImpl::toPostAdminResponse).toList();
+    return PostsAdminResponse.newBuilder().addAllPosts(posts).build().toByteArray();
+  }
+}
@@ -0,0 +1,78 @@
+package com.service.post.common;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+  public static final int COMPRESS_THRESHOLD_BYTES = 1024;
+
+  private static final byte RAW = 0;
+  private static final byte LZ4 = 1;
+  private static final int LZ4_HEADER_BYTES = 5;
+
+  private static final LZ4Factory LZ4_FACTORY = LZ4Factory.safeInstance();
+  private static final LZ4Compressor COMPRESSOR = LZ4_FACTORY.fastCompressor();
+  private static final LZ4FastDecompressor DECOMPRESSOR = LZ4_FACTORY.fastDecompressor();
+
+  private static final Counter RAW_BYTES = Counter.builder("post.content.bytes").baseUnit("bytes")
+      .tag("stage", "raw").register(Metrics.globalRegistry);
+  private static final Counter STORED_BYTES = Counter.builder("post.content.bytes").baseUnit("bytes")
+      .tag("stage", "stored").register(Metrics.globalRegistry);
+
+  @Override
+  public byte[] convertToDatabaseColumn(String text) {
+    return text != null ? encode(text) : null;
+  }
+
+  @Override
+  public String convertToEntityAttribute(byte[] data) {
+    return data != null ? decode(data) : null;
+  }
+
+  public static byte[] encode(String text) {
+    byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+    byte[] data = compress(raw);
+    RAW_BYTES.increment(raw.length);
+    STORED_BYTES.increment(data.length);
+    return data;
+  }
+
+  private static byte[] compress(byte[] raw) {
+    if (raw.length >= COMPRESS_THRESHOLD_BYTES) {
+      byte[] compressed = new byte[LZ4_HEADER_BYTES + COMPRESSOR.maxCompressedLength(raw.length)];
+      int length = COMPRESSOR.compress(raw, 0, raw.length, compressed, LZ4_HEADER_BYTES);
+      if (LZ4_HEADER_BYTES + length < raw.length) {
+        ByteBuffer.wrap(compressed).put(LZ4).putInt(raw.length);
+        return Arrays.copyOf(compressed, LZ4_HEADER_BYTES + length);
+      }
+    }
+
+    byte[] data = new byte[raw.length + 1];
+    data[0] = RAW;
+    System.arraycopy(raw, 0, data, 1, raw.length);
+    return data;
+  }
+
+  public static String decode(byte[] data) {
+    if (data.length == 0) {
+      return "";
+    }
+    if (data[0] == LZ4) {
+      int length = ByteBuffer.wrap(data, 1, 4).getInt();
+      byte[] raw = new byte[length];
+      DECOMPRESSOR.decompress(data, LZ4_HEADER_BYTES, raw, 0, length);
+      return new String(raw, StandardCharsets.UTF_8);
+    }
+    return new String(data, 1, data.length - 1, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,29 @@
+package com.service.post.common;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+
+public class ImageHashUtil {
+  private static final int CHUNK_CHARS = 64 * 1024;
+
+  public static String sha256OfBase64(String base64Data) {
+    if (base64Data == null || base64Data.isEmpty() || base64Data.length() % 4 != 0) {
+      return null;
+    }
+
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      Base64.Decoder decoder = Base64.getDecoder();
+      for (int start = 0; start < base64Data.length(); start += CHUNK_CHARS) {
+        int end = Math.min(start + CHUNK_CHARS, base64Data.length());
+        digest.update(decoder.decode(base64Data.substring(start, end).getBytes(StandardCharsets.ISO_8859_1)));
+      }
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+}
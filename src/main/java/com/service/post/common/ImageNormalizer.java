@@ -0,0 +1,305 @@
+package com.service.post.common;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+public class ImageNormalizer {
+  public static final String JPEG = "jpeg";
+  public static final String PNG = "png";
+
+  private static final int EXIF_ORIENTATION_TAG = 0x0112;
+  private static final int PNG_SIGNATURE_LENGTH = 8;
+  // chunk phụ ảnh hưởng tới cách hiển thị (trong suốt, màu, APNG) nên giữ lại khi bỏ metadata
+  private static final Set<String> PNG_RENDERING_CHUNKS = Set.of("tRNS", "gAMA", "cHRM", "sRGB", "iCCP", "sBIT",
+      "cICP", "acTL", "fcTL", "fdAT");
+
+  @AllArgsConstructor
+  @Getter
+  public static class DecodedImage {
+    private final BufferedImage image;
+    private final String format;
+    private final int sourceWidth;
+    private final int sourceHeight;
+    private final boolean reoriented;
+  }
+
+  public static DecodedImage decode(byte[] data, int maxDimension) throws IOException {
+    try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+      Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+      if (!readers.hasNext()) {
+        return null;
+      }
+
+      ImageReader reader = readers.next();
+      try {
+        String format = reader.getFormatName().toLowerCase(Locale.ROOT);
+        if (!JPEG.equals(format) && !PNG.equals(format)) {
+          return null;
+        }
+
+        reader.setInput(input, true, true);
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+        ImageReadParam param = reader.getDefaultReadParam();
+        int subsampling = Math.max(width, height) / (maxDimension * 2);
+        if (subsampling > 1) {
+          param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+        }
+
+        BufferedImage image = reader.read(0, param);
+        if (!JPEG.equals(format)) {
+          return new DecodedImage(image, format, width, height, false);
+        }
+
+        int orientation = exifOrientation(data);
+        BufferedImage oriented = orient(image, orientation);
+        return orientation >= 5 && orientation <= 8 ? new DecodedImage(oriented, format, height, width, true)
+            : new DecodedImage(oriented, format, width, height, oriented != image);
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  public static BufferedImage scaleToFit(BufferedImage image, int maxDimension) {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    if (Math.max(width, height) <= maxDimension) {
+      return image;
+    }
+
+    double ratio = (double) maxDimension / Math.max(width, height);
+    int targetWidth = Math.max((int) Math.round(width * ratio), 1);
+    int targetHeight = Math.max((int) Math.round(height * ratio), 1);
+
+    BufferedImage current = image;
+    do {
+      width = Math.max(width / 2, targetWidth);
+      height = Math.max(height / 2, targetHeight);
+      BufferedImage next = new BufferedImage(width, height, imageType(image));
+      Graphics2D g = next.createGraphics();
+      try {
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(current, 0, 0, width, height, null);
+      } finally {
+        g.dispose();
+      }
+      current = next;
+    } while (width != targetWidth || height != targetHeight);
+    return current;
+  }
+
+  public static byte[] encode(BufferedImage image, String format, float quality) throws IOException {
+    Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+    if (!writers.hasNext()) {
+      throw new IOException("Không hỗ trợ định dạng ảnh " + format);
+    }
+
+    ImageWriter writer = writers.next();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+      writer.setOutput(output);
+      ImageWriteParam param = writer.getDefaultWriteParam();
+      BufferedImage encoded = image;
+      if (JPEG.equals(format)) {
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+        encoded = opaque(image);
+      }
+      writer.write(null, new IIOImage(encoded, null, null), param);
+    } finally {
+      writer.dispose();
+    }
+    return out.toByteArray();
+  }
+
+  public static byte[] stripMetadata(byte[] data, String format) {
+    if (JPEG.equals(format)) {
+      return stripJpegMetadata(data);
+    }
+    return PNG.equals(format) ? stripPngMetadata(data) : data;
+  }
+
+  private static byte[] stripJpegMetadata(byte[] data) {
+    if (data.length < 4 || (data[0] & 0xFF) != 0xFF || (data[1] & 0xFF) != 0xD8) {
+      return data;
+    }
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream(data.length);
+    out.write(data, 0, 2);
+    int pos = 2;
+    while (pos + 4 <= data.length && (data[pos] & 0xFF) == 0xFF) {
+      int marker = data[pos + 1] & 0xFF;
+      if (marker == 0xDA) {
+        out.write(data, pos, data.length - pos);
+        return out.size() == data.length ? data : out.toByteArray();
+      }
+      int length = readShort(data, pos + 2, false);
+      int end = pos + 2 + length;
+      if (length < 2 || end > data.length) {
+        return data;
+      }
+      // giữ APP0 (JFIF), APP2 (ICC) và APP14 (Adobe), bỏ EXIF/XMP/IPTC và comment
+      boolean metadata = marker == 0xFE || (marker >= 0xE1 && marker <= 0xEF && marker != 0xE2 && marker != 0xEE);
+      if (!metadata) {
+        out.write(data, pos, end - pos);
+      }
+      pos = end;
+    }
+    return data;
+  }
+
+  private static byte[] stripPngMetadata(byte[] data) {
+    if (data.length < PNG_SIGNATURE_LENGTH) {
+      return data;
+    }
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream(data.length);
+    out.write(data, 0, PNG_SIGNATURE_LENGTH);
+    int pos = PNG_SIGNATURE_LENGTH;
+    while (pos + 12 <= data.length) {
+      long end = pos + 12 + (readInt(data, pos, false) & 0xFFFFFFFFL);
+      if (end > data.length) {
+        return data;
+      }
+      String type = new String(data, pos + 4, 4, StandardCharsets.US_ASCII);
+      boolean critical = (data[pos + 4] & 0x20) == 0;
+      if (critical || PNG_RENDERING_CHUNKS.contains(type)) {
+        out.write(data, pos, (int) end - pos);
+      }
+      pos = (int) end;
+      if ("IEND".equals(type)) {
+        break;
+      }
+    }
+    return out.size() == data.length ? data : out.toByteArray();
+  }
+
+  public static int exifOrientation(byte[] data) {
+    if (data.length < 4 || (data[0] & 0xFF) != 0xFF || (data[1] & 0xFF) != 0xD8) {
+      return 1;
+    }
+
+    int pos = 2;
+    while (pos + 4 <= data.length && (data[pos] & 0xFF) == 0xFF) {
+      int marker = data[pos + 1] & 0xFF;
+      int length = readShort(data, pos + 2, false);
+      if (marker == 0xDA || length < 2) {
+        break;
+      }
+      int end = pos + 2 + length;
+      if (marker == 0xE1 && end <= data.length && length >= 16 && data[pos + 4] == 'E' && data[pos + 5] == 'x'
+          && data[pos + 6] == 'i' && data[pos + 7] == 'f' && data[pos + 8] == 0 && data[pos + 9] == 0) {
+        return tiffOrientation(data, pos + 10, end);
+      }
+      pos = end;
+    }
+    return 1;
+  }
+
+  private static int tiffOrientation(byte[] data, int tiff, int end) {
+    boolean littleEndian = data[tiff] == 'I' && data[tiff + 1] == 'I';
+    long ifd = tiff + (readInt(data, tiff + 4, littleEndian) & 0xFFFFFFFFL);
+    if (ifd + 2 > end) {
+      return 1;
+    }
+
+    int entries = readShort(data, (int) ifd, littleEndian);
+    for (int i = 0; i < entries; i++) {
+      int entry = (int) ifd + 2 + i * 12;
+      if (entry + 12 > end) {
+        break;
+      }
+      if (readShort(data, entry, littleEndian) == EXIF_ORIENTATION_TAG) {
+        return readShort(data, entry + 8, littleEndian);
+      }
+    }
+    return 1;
+  }
+
+  private static BufferedImage orient(BufferedImage image, int orientation) {
+    int w = image.getWidth();
+    int h = image.getHeight();
+    AffineTransform transform = switch (orientation) {
+      case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+      case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+      case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+      case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+      case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+      case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+      case 8 -> new AffineTransform(0, -1, 1, 0, 0, w);
+      default -> null;
+    };
+    if (transform == null) {
+      return image;
+    }
+
+    boolean swap = orientation >= 5;
+    BufferedImage oriented = new BufferedImage(swap ? h : w, swap ? w : h, imageType(image));
+    Graphics2D g = oriented.createGraphics();
+    try {
+      g.drawImage(image, transform, null);
+    } finally {
+      g.dispose();
+    }
+    return oriented;
+  }
+
+  private static BufferedImage opaque(BufferedImage image) {
+    if (!image.getColorModel().hasAlpha()) {
+      return image;
+    }
+
+    BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = rgb.createGraphics();
+    try {
+      g.setColor(Color.WHITE);
+      g.fillRect(0, 0, image.getWidth(), image.getHeight());
+      g.drawImage(image, 0, 0, null);
+    } finally {
+      g.dispose();
+    }
+    return rgb;
+  }
+
+  private static int imageType(BufferedImage image) {
+    return image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+  }
+
+  private static int readShort(byte[] data, int pos, boolean littleEndian) {
+    if (pos < 0 || pos + 2 > data.length) {
+      return 0;
+    }
+    int b0 = data[pos] & 0xFF;
+    int b1 = data[pos + 1] & 0xFF;
+    return littleEndian ? (b1 << 8) | b0 : (b0 << 8) | b1;
+  }
+
+  private static int readInt(byte[] data, int pos, boolean littleEndian) {
+    int high = readShort(data, littleEndian ? pos + 2 : pos, littleEndian);
+    int low = readShort(data, littleEndian ? pos : pos + 2, littleEndian);
+    return (high << 16) | low;
+  }
+}
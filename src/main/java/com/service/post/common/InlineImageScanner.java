@@ -0,0 +1,197 @@
+package com.service.post.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+public class InlineImageScanner {
+  public static final String PLACEHOLDER_PREFIX = "post-image:";
+
+  private static final String DATA_IMAGE_PREFIX = "data:image/";
+
+  @AllArgsConstructor
+  @Getter
+  public static class ImageSource {
+    private final int start;
+    private final int end;
+    private final String mimeType;
+    private final int dataStart;
+
+    public boolean isDataImage() {
+      return mimeType != null;
+    }
+
+    public String src(String html) {
+      return html.substring(start, end);
+    }
+
+    public String base64Data(String html) {
+      return html.substring(dataStart, end);
+    }
+
+    public String extension() {
+      return mimeType.substring(mimeType.indexOf('/') + 1);
+    }
+
+    public boolean isPlaceholder(String html) {
+      return html.startsWith(PLACEHOLDER_PREFIX, start);
+    }
+
+    public String placeholderImageId(String html) {
+      return html.substring(start + PLACEHOLDER_PREFIX.length(), end);
+    }
+  }
+
+  public static String placeholder(String imageId) {
+    return PLACEHOLDER_PREFIX + imageId;
+  }
+
+  public static List<ImageSource> scan(String html) {
+    return scan(html, 0, html.length());
+  }
+
+  public static List<ImageSource> scan(String html, int from, int to) {
+    List<ImageSource> sources = new ArrayList<>();
+    int length = html.length();
+    int i = html.indexOf('<', from);
+
+    while (i >= 0 && i < to) {
+      if (html.startsWith("<!--", i)) {
+        int close = html.indexOf("-->", i + 4);
+        i = close < 0 ? -1 : html.indexOf('<', close + 3);
+        continue;
+      }
+
+      if (!isImgTag(html, i)) {
+        i = html.indexOf('<', i + 1);
+        continue;
+      }
+
+      int pos = i + 4;
+      boolean srcFound = false;
+      while (pos < length && html.charAt(pos) != '>') {
+        pos = skipWhitespace(html, pos);
+        if (pos >= length || html.charAt(pos) == '>') {
+          break;
+        }
+        if (html.charAt(pos) == '/') {
+          pos++;
+          continue;
+        }
+
+        int nameStart = pos;
+        while (pos < length && !isNameEnd(html.charAt(pos))) {
+          pos++;
+        }
+        int nameEnd = pos;
+
+        pos = skipWhitespace(html, pos);
+        if (pos >= length || html.charAt(pos) != '=') {
+          continue;
+        }
+        pos = skipWhitespace(html, pos + 1);
+        if (pos >= length) {
+          break;
+        }
+
+        int valueStart;
+        int valueEnd;
+        char quote = html.charAt(pos);
+        if (quote == '"' || quote == '\'') {
+          valueStart = pos + 1;
+          valueEnd = html.indexOf(quote, valueStart);
+          if (valueEnd < 0) {
+            valueEnd = length;
+          }
+          pos = valueEnd + 1;
+        } else {
+          valueStart = pos;
+          while (pos < length && !Character.isWhitespace(html.charAt(pos)) && html.charAt(pos) != '>') {
+            pos++;
+          }
+          valueEnd = pos;
+        }
+
+        if (!srcFound && nameEnd - nameStart == 3 && html.regionMatches(true, nameStart, "src", 0, 3)) {
+          sources.add(toImageSource(html, valueStart, valueEnd));
+          srcFound = true;
+        }
+      }
+
+      i = pos < length ? html.indexOf('<', pos) : -1;
+    }
+
+    return sources;
+  }
+
+  public static String rewrite(String html, List<ImageSource> sources, Function<ImageSource, String> replacement) {
+    StringBuilder out = new StringBuilder(html.length());
+    int last = 0;
+    for (ImageSource source : sources) {
+      String value = replacement.apply(source);
+      if (value == null) {
+        continue;
+      }
+      out.append(html, last, source.getStart()).append(value);
+      last = source.getEnd();
+    }
+    if (last == 0) {
+      return html;
+    }
+    return out.append(html, last, html.length()).toString();
+  }
+
+  public static String replacePlaceholders(String html, Map<String, String> urlsByImageId) {
+    return rewrite(html, scan(html),
+        source -> source.isPlaceholder(html) ? urlsByImageId.get(source.placeholderImageId(html)) : null);
+  }
+
+  public static String restorePlaceholders(String html, Map<String, String> imageIdsByUrl) {
+    return rewrite(html, scan(html), source -> {
+      String imageId = source.isDataImage() ? null : imageIdsByUrl.get(source.src(html));
+      return imageId != null ? placeholder(imageId) : null;
+    });
+  }
+
+  private static ImageSource toImageSource(String html, int start, int end) {
+    if (end - start <= DATA_IMAGE_PREFIX.length()
+        || !html.regionMatches(true, start, DATA_IMAGE_PREFIX, 0, DATA_IMAGE_PREFIX.length())) {
+      return new ImageSource(start, end, null, -1);
+    }
+
+    int comma = html.indexOf(',', start);
+    if (comma < 0 || comma >= end) {
+      return new ImageSource(start, end, null, -1);
+    }
+
+    int mimeEnd = start + 5;
+    while (mimeEnd < comma && html.charAt(mimeEnd) != ';') {
+      mimeEnd++;
+    }
+    return new ImageSource(start, end, html.substring(start + 5, mimeEnd), comma + 1);
+  }
+
+  private static boolean isImgTag(String html, int i) {
+    if (!html.regionMatches(true, i + 1, "img", 0, 3)) {
+      return false;
+    }
+    int next = i + 4;
+    return next < html.length() && (Character.isWhitespace(html.charAt(next)) || html.charAt(next) == '/'
+        || html.charAt(next) == '>');
+  }
+
+  private static boolean isNameEnd(char c) {
+    return Character.isWhitespace(c) || c == '=' || c == '>' || c == '/';
+  }
+
+  private static int skipWhitespace(String html, int pos) {
+    while (pos < html.length() && Character.isWhitespace(html.charAt(pos))) {
+      pos++;
+    }
+    return pos;
+  }
+}
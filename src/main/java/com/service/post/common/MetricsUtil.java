@@ -0,0 +1,27 @@
+package com.service.post.common;
+
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+public class MetricsUtil {
+  public static <T> T timed(MeterRegistry meterRegistry, Timer.Builder timer, Supplier<T> call) {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String outcome = "error";
+    try {
+      T result = call.get();
+      outcome = "success";
+      return result;
+    } finally {
+      sample.stop(timer.tag("outcome", outcome).publishPercentileHistogram().register(meterRegistry));
+    }
+  }
+
+  public static void timed(MeterRegistry meterRegistry, Timer.Builder timer, Runnable call) {
+    timed(meterRegistry, timer, () -> {
+      call.run();
+      return null;
+    });
+  }
+}
@@ -0,0 +1,38 @@
+package com.service.post.common;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.service.post.exceptions.InvalidArgumentException;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class PageCursor {
+  private static final String SEPARATOR = "\n";
+
+  private String sortField;
+  private String direction;
+  private String id;
+  private String value;
+
+  public String encode() {
+    String raw = String.join(SEPARATOR, sortField, direction, id, value);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static PageCursor decode(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] parts = raw.split(SEPARATOR, 4);
+      if (parts.length != 4) {
+        throw new InvalidArgumentException("cursor không hợp lệ");
+      }
+      return new PageCursor(parts[0], parts[1], parts[2], parts[3]);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidArgumentException("cursor không hợp lệ");
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package com.service.post.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ExecutorConfig {
+  @Value("${spring.grpc.server.stream.threads:4}")
+  private int streamThreads;
+
+  @Value("${spring.grpc.server.stream.queue-size:16}")
+  private int streamQueueSize;
+
+  @Value("${spring.rabbitmq.upload.patch-threads:4}")
+  private int patchThreads;
+
+  @Value("${spring.imagekit.upload.concurrency:8}")
+  private int uploadConcurrency;
+
+  @Value("${spring.imagekit.processing.threads:0}")
+  private int processingThreads;
+
+  @Value("${spring.grpc.services.user.cache.write-queue-size:1000}")
+  private int userCacheWriteQueueSize;
+
+  @Bean(destroyMethod = "shutdownNow")
+  public ExecutorService postStreamExecutor() {
+    return new ThreadPoolExecutor(streamThreads, streamThreads, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(streamQueueSize), Thread.ofPlatform().name("post-stream-", 0).factory(),
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  @Bean(destroyMethod = "shutdown")
+  public ExecutorService userCacheWriteExecutor() {
+    return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(userCacheWriteQueueSize),
+        Thread.ofPlatform().name("user-cache-write-", 0).factory(), new ThreadPoolExecutor.DiscardPolicy());
+  }
+
+  @Bean(destroyMethod = "shutdown")
+  public ScheduledExecutorService imagePatchScheduler() {
+    return Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("image-patch-", 0).factory());
+  }
+
+  @Bean(destroyMethod = "shutdown")
+  public ExecutorService imagePatchExecutor() {
+    return Executors.newFixedThreadPool(patchThreads, Thread.ofPlatform().name("image-patch-flush-", 0).factory());
+  }
+
+  @Bean(destroyMethod = "shutdown")
+  public ExecutorService imageUploadExecutor() {
+    return Executors.newFixedThreadPool(uploadConcurrency, Thread.ofPlatform().name("image-upload-", 0).factory());
+  }
+
+  @Bean(destroyMethod = "shutdown")
+  public ExecutorService imageProcessingExecutor() {
+    int threads = processingThreads > 0 ? processingThreads : Runtime.getRuntime().availableProcessors();
+    return Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("image-processing-", 0).factory());
+  }
+
+  @Bean(destroyMethod = "shutdownNow")
+  public ScheduledExecutorService imageUploadRetryScheduler() {
+    return Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("image-upload-retry-", 0).factory());
+  }
+}
@@ -0,0 +1,20 @@
+package com.service.post.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.grpc.server.GlobalServerInterceptor;
+
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.grpc.MetricCollectingServerInterceptor;
+
+@Configuration
+public class MetricsConfig {
+  @Bean
+  @GlobalServerInterceptor
+  public MetricCollectingServerInterceptor metricCollectingServerInterceptor(MeterRegistry meterRegistry) {
+    return new MetricCollectingServerInterceptor(meterRegistry, counter -> counter,
+        timer -> timer.publishPercentileHistogram(), Status.Code.OK, Status.Code.INVALID_ARGUMENT,
+        Status.Code.NOT_FOUND, Status.Code.ALREADY_EXISTS, Status.Code.INTERNAL);
+  }
+}
@@ -1,12 +1,27 @@
 package com.service.post.config;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.rabbit.config.ContainerCustomizer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.rabbit.retry.RepublishMessageRecoverer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -14,11 +29,33 @@ import org.springframework.context.annotation.Configuration;
 public class RabbitMQConfig {
   public static final String UPLOAD_QUEUE_NAME = "post.image.upload";
   public static final String DELETE_QUEUE_NAME = "post.image.delete";
+  public static final String DELETE_WORK_QUEUE_NAME = "post.image.delete.v2";
   public static final String UPLOADED_QUEUE_NAME = "post.image.uploaded";
   public static final String EXCHANGE = "post.image";
   public static final String UPLOAD_ROUTING_KEY = "post.image.upload";
   public static final String DELETE_ROUTING_KEY = "post.image.delete";
   public static final String UPLOADED_ROUTING_KEY = "post.image.uploaded";
+  public static final String RETRY_EXCHANGE = "post.image.retry";
+  public static final String DEAD_LETTER_EXCHANGE = "post.image.dlx";
+  public static final String BATCH_LISTENER_FACTORY = "batchListenerContainerFactory";
+  public static final List<String> RETRYABLE_QUEUES = List.of(UPLOAD_QUEUE_NAME, DELETE_QUEUE_NAME);
+
+  @Value("${spring.rabbitmq.retry.delays-ms:5000,30000,300000}")
+  private List<Long> retryDelaysMs;
+
+  @Value("${spring.rabbitmq.delete.batch-size:100}")
+  private int deleteBatchSize;
+
+  @Value("${spring.rabbitmq.delete.batch-window-ms:500}")
+  private long deleteBatchWindowMs;
+
+  public static String retryQueueName(String queue, long delayMs) {
+    return queue + ".retry." + delayMs + "ms";
+  }
+
+  public static String deadLetterQueueName(String queue) {
+    return queue + ".dlq";
+  }
 
   @Bean
   public Queue uploadQueue() {
@@ -30,6 +67,13 @@ public class RabbitMQConfig {
     return new Queue(DELETE_QUEUE_NAME);
   }
 
+  // Không thể thêm dead-letter exchange cho hàng đợi cũ đã tồn tại, yêu cầu xóa ảnh mới đi vào hàng đợi này
+  @Bean
+  public Queue deleteWorkQueue() {
+    return QueueBuilder.durable(DELETE_WORK_QUEUE_NAME).deadLetterExchange(DEAD_LETTER_EXCHANGE)
+        .deadLetterRoutingKey(DELETE_QUEUE_NAME).build();
+  }
+
   @Bean
   public Queue uploadedQueue() {
     return new Queue(UPLOADED_QUEUE_NAME, false);
@@ -46,8 +90,8 @@ public class RabbitMQConfig {
   }
 
   @Bean
-  public Binding bindingDeleteQueue(Queue deleteQueue, TopicExchange exchange) {
-    return BindingBuilder.bind(deleteQueue).to(exchange).with(DELETE_ROUTING_KEY);
+  public Binding bindingDeleteWorkQueue(Queue deleteWorkQueue, TopicExchange exchange) {
+    return BindingBuilder.bind(deleteWorkQueue).to(exchange).with(DELETE_ROUTING_KEY);
   }
 
   @Bean
@@ -55,6 +99,58 @@ public class RabbitMQConfig {
     return BindingBuilder.bind(uploadedQueue).to(exchange).with(UPLOADED_ROUTING_KEY);
   }
 
+  @Bean
+  public DirectExchange retryExchange() {
+    return new DirectExchange(RETRY_EXCHANGE);
+  }
+
+  @Bean
+  public DirectExchange deadLetterExchange() {
+    return new DirectExchange(DEAD_LETTER_EXCHANGE);
+  }
+
+  @Bean
+  public Declarables retryTopology(DirectExchange retryExchange, DirectExchange deadLetterExchange) {
+    List<Declarable> declarables = new ArrayList<>();
+    for (String queue : RETRYABLE_QUEUES) {
+      for (long delayMs : retryDelaysMs) {
+        Queue retryQueue = QueueBuilder.durable(retryQueueName(queue, delayMs)).ttl((int) delayMs)
+            .deadLetterExchange(EXCHANGE).deadLetterRoutingKey(queue).build();
+        declarables.add(retryQueue);
+        declarables.add(BindingBuilder.bind(retryQueue).to(retryExchange).with(retryQueue.getName()));
+      }
+
+      Queue deadLetterQueue = QueueBuilder.durable(deadLetterQueueName(queue)).build();
+      declarables.add(deadLetterQueue);
+      declarables.add(BindingBuilder.bind(deadLetterQueue).to(deadLetterExchange).with(queue));
+    }
+    return new Declarables(declarables);
+  }
+
+  @Bean
+  public MessageRecoverer deadLetterRecoverer(RabbitTemplate rabbitTemplate) {
+    RepublishMessageRecoverer recoverer = new RepublishMessageRecoverer(rabbitTemplate, DEAD_LETTER_EXCHANGE);
+    recoverer.setErrorRoutingKeyPrefix("");
+    return recoverer;
+  }
+
+  @Bean(BATCH_LISTENER_FACTORY)
+  public SimpleRabbitListenerContainerFactory batchListenerContainerFactory(
+      SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+      ObjectProvider<ContainerCustomizer<SimpleMessageListenerContainer>> containerCustomizer) {
+    SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+    configurer.configure(factory, connectionFactory);
+    factory.setMessageConverter(jsonMessageConverter());
+    factory.setAdviceChain();
+    factory.setBatchListener(true);
+    factory.setConsumerBatchEnabled(true);
+    factory.setBatchSize(deleteBatchSize);
+    factory.setPrefetchCount(deleteBatchSize);
+    factory.setReceiveTimeout(deleteBatchWindowMs);
+    containerCustomizer.ifUnique(factory::setContainerCustomizer);
+    return factory;
+  }
+
   @Bean
   public Jackson2JsonMessageConverter jsonMessageConverter() {
     return new Jackson2JsonMessageConverter();
@@ -0,0 +1,21 @@
+package com.service.post.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+public class SearchFunctionContributor implements FunctionContributor {
+  public static final String MATCH_FUNCTION = "fts_match";
+  public static final String RANK_FUNCTION = "fts_rank";
+
+  @Override
+  public void contributeFunctions(FunctionContributions functionContributions) {
+    BasicTypeRegistry basicTypeRegistry = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+
+    functionContributions.getFunctionRegistry().registerPattern(MATCH_FUNCTION,
+        "(?1 @@ websearch_to_tsquery('simple', ?2))", basicTypeRegistry.resolve(StandardBasicTypes.BOOLEAN));
+    functionContributions.getFunctionRegistry().registerPattern(RANK_FUNCTION,
+        "ts_rank(?1, websearch_to_tsquery('simple', ?2))", basicTypeRegistry.resolve(StandardBasicTypes.DOUBLE));
+  }
+}
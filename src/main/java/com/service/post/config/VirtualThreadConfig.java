@@ -0,0 +1,46 @@
+package com.service.post.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.amqp.rabbit.config.ContainerCustomizer;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.grpc.server.ServerBuilderCustomizer;
+
+import io.grpc.ServerBuilder;
+
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+  @Value("${spring.rabbitmq.listener.virtual.concurrency:20}")
+  private int listenerConcurrency;
+
+  @Value("${spring.rabbitmq.listener.virtual.max-concurrency:50}")
+  private int listenerMaxConcurrency;
+
+  @Bean(destroyMethod = "shutdown")
+  public ExecutorService grpcServerExecutor() {
+    return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("grpc-vt-", 0).factory());
+  }
+
+  @Bean
+  public <T extends ServerBuilder<T>> ServerBuilderCustomizer<T> virtualThreadServerCustomizer(
+      ExecutorService grpcServerExecutor) {
+    return builder -> builder.executor(grpcServerExecutor);
+  }
+
+  @Bean
+  public ContainerCustomizer<SimpleMessageListenerContainer> virtualThreadListenerCustomizer() {
+    return container -> {
+      container.setTaskExecutor(new VirtualThreadTaskExecutor("rabbit-vt-"));
+      container.setConcurrentConsumers(listenerConcurrency);
+      container.setMaxConcurrentConsumers(listenerMaxConcurrency);
+    };
+  }
+}
@@ -0,0 +1,68 @@
+package com.service.post.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadPinningMonitor {
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+  private final MeterRegistry meterRegistry;
+  private final long thresholdMs;
+
+  private RecordingStream stream;
+
+  public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+      @Value("${spring.threads.virtual.pinned-threshold-ms:20}") long thresholdMs) {
+    this.meterRegistry = meterRegistry;
+    this.thresholdMs = thresholdMs;
+  }
+
+  @PostConstruct
+  public void start() {
+    stream = new RecordingStream();
+    stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+    stream.onEvent(PINNED_EVENT, this::onPinned);
+    stream.startAsync();
+  }
+
+  @PreDestroy
+  public void stop() {
+    stream.close();
+  }
+
+  private void onPinned(RecordedEvent event) {
+    String frame = topApplicationFrame(event);
+    Timer.builder("jvm.threads.virtual.pinned").tag("frame", frame).register(meterRegistry)
+        .record(event.getDuration());
+    log.warn("Luồng ảo bị ghim {} ms tại {}", event.getDuration().toMillis(), frame);
+  }
+
+  private String topApplicationFrame(RecordedEvent event) {
+    if (event.getStackTrace() == null) {
+      return "unknown";
+    }
+    for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+      String type = frame.getMethod().getType().getName();
+      if (type.startsWith("com.service.post.")) {
+        return type + "." + frame.getMethod().getName();
+      }
+    }
+    return "library";
+  }
+}
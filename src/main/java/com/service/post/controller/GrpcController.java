@@ -1,11 +1,14 @@
 package com.service.post.controller;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.grpc.server.service.GrpcService;
 
 import com.service.post.CreatePostRequest;
+import com.service.post.CreatePostsRequest;
+import com.service.post.CreatePostsResponse;
 import com.service.post.CreateTopicRequest;
 import com.service.post.CreatedResponse;
 import com.service.post.DeleteManyRequest;
@@ -17,25 +20,27 @@ import com.service.post.GetOneRequest;
 import com.service.post.PermanentlyDeleteManyRequest;
 import com.service.post.PermanentlyDeleteOneRequest;
 import com.service.post.PostAdminDetailsResponse;
+import com.service.post.PostAdminResponse;
 import com.service.post.PostContentResponse;
 import com.service.post.PostsAdminResponse;
 import com.service.post.PostServiceGrpc.PostServiceImplBase;
-import com.service.post.entity.TopicEntity;
 import com.service.post.RestoreManyRequest;
 import com.service.post.RestoreOneRequest;
 import com.service.post.RestoredResponse;
-import com.service.post.TopicResponse;
 import com.service.post.TopicsAdminResponse;
 import com.service.post.TopicsResponse;
 import com.service.post.UpdatePostRequest;
 import com.service.post.UpdateTopicRequest;
 import com.service.post.UpdatedResponse;
 import com.service.post.exceptions.AlreadyExistsException;
+import com.service.post.exceptions.ConflictException;
+import com.service.post.exceptions.InvalidArgumentException;
 import com.service.post.exceptions.ResourceNotFoundException;
 import com.service.post.service.PostService;
 
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -46,6 +51,7 @@ import lombok.experimental.FieldDefaults;
 @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
 public class GrpcController extends PostServiceImplBase {
   PostService postService;
+  ExecutorService postStreamExecutor;
 
   @Override
   public void createTopic(CreateTopicRequest request, StreamObserver<CreatedResponse> responseObserver) {
@@ -93,9 +99,7 @@ public class GrpcController extends PostServiceImplBase {
   @Override
   public void getAllTopics(GetAllRequest request, StreamObserver<TopicsResponse> responseObserver) {
     try {
-      List<TopicEntity> topics = postService.getAllTopics();
-      TopicsResponse convertedTopics = toTopicsResponse(topics);
-      responseObserver.onNext(convertedTopics);
+      responseObserver.onNext(postService.getAllTopics());
       responseObserver.onCompleted();
       return;
     } catch (Exception e) {
@@ -234,6 +238,18 @@ public class GrpcController extends PostServiceImplBase {
     }
   }
 
+  @Override
+  public void createPosts(CreatePostsRequest request, StreamObserver<CreatePostsResponse> responseObserver) {
+    try {
+      CreatePostsResponse response = postService.createPosts(request);
+      responseObserver.onNext(response);
+      responseObserver.onCompleted();
+    } catch (Exception e) {
+      responseObserver.onError(
+          Status.INTERNAL.withDescription("tạo danh sách bài viết thất bại: " + e.getMessage()).asRuntimeException());
+    }
+  }
+
   @Override
   public void getAllPostsAdmin(GetAllPostsAdminRequest request, StreamObserver<PostsAdminResponse> responseObserver) {
     try {
@@ -241,6 +257,8 @@ public class GrpcController extends PostServiceImplBase {
       responseObserver.onNext(convertedTopics);
       responseObserver.onCompleted();
       return;
+    } catch (InvalidArgumentException e) {
+      responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
     } catch (StatusRuntimeException e) {
       responseObserver.onError(e);
     } catch (Exception e) {
@@ -250,6 +268,42 @@ public class GrpcController extends PostServiceImplBase {
     }
   }
 
+  @Override
+  public void streamPosts(GetAllPostsAdminRequest request, StreamObserver<PostAdminResponse> responseObserver) {
+    ServerCallStreamObserver<PostAdminResponse> serverObserver =
+        (ServerCallStreamObserver<PostAdminResponse>) responseObserver;
+    Object readyLock = new Object();
+    Runnable wakeUp = () -> {
+      synchronized (readyLock) {
+        readyLock.notifyAll();
+      }
+    };
+    serverObserver.setOnReadyHandler(wakeUp);
+    serverObserver.setOnCancelHandler(wakeUp);
+
+    try {
+      postStreamExecutor.execute(() -> {
+        try {
+          postService.streamPosts(request, post -> {
+            awaitReady(serverObserver, readyLock);
+            serverObserver.onNext(post);
+          });
+          serverObserver.onCompleted();
+        } catch (CancellationException e) {
+          // client đã hủy luồng, không cần gửi phản hồi
+        } catch (InvalidArgumentException e) {
+          serverObserver.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+        } catch (Exception e) {
+          serverObserver.onError(Status.INTERNAL.withDescription("xuất danh sách bài viết thất bại: " + e.getMessage())
+              .asRuntimeException());
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      serverObserver.onError(Status.RESOURCE_EXHAUSTED.withDescription("máy chủ đang bận xuất bài viết, thử lại sau")
+          .asRuntimeException());
+    }
+  }
+
   @Override
   public void getPostById(GetOneRequest request, StreamObserver<PostAdminDetailsResponse> responseObserver) {
     try {
@@ -291,6 +345,10 @@ public class GrpcController extends PostServiceImplBase {
       responseObserver.onError(Status.NOT_FOUND.withDescription(e.getMessage()).asRuntimeException());
     } catch (AlreadyExistsException e) {
       responseObserver.onError(Status.ALREADY_EXISTS.withDescription(e.getMessage()).asRuntimeException());
+    } catch (ConflictException e) {
+      responseObserver.onError(Status.ABORTED.withDescription(e.getMessage()).asRuntimeException());
+    } catch (InvalidArgumentException e) {
+      responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
     } catch (StatusRuntimeException e) {
       responseObserver.onError(e);
     } catch (Exception e) {
@@ -382,6 +440,8 @@ public class GrpcController extends PostServiceImplBase {
       responseObserver.onNext(convertedTopics);
       responseObserver.onCompleted();
       return;
+    } catch (InvalidArgumentException e) {
+      responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
     } catch (StatusRuntimeException e) {
       responseObserver.onError(e);
     } catch (Exception e) {
@@ -422,14 +482,22 @@ public class GrpcController extends PostServiceImplBase {
     }
   }
 
-  private TopicsResponse toTopicsResponse(List<TopicEntity> topics) {
-    List<TopicResponse> topicResponses = new ArrayList<>();
-    for (TopicEntity topic : topics) {
-      TopicResponse convertedTopic = TopicResponse.newBuilder().setId(topic.getId()).setName(topic.getName())
-          .setSlug(topic.getSlug()).build();
-      topicResponses.add(convertedTopic);
+  private void awaitReady(ServerCallStreamObserver<?> observer, Object readyLock) {
+    synchronized (readyLock) {
+      while (!observer.isReady()) {
+        if (observer.isCancelled()) {
+          throw new CancellationException("client đã hủy luồng");
+        }
+        try {
+          readyLock.wait(1000);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new CancellationException("luồng bị gián đoạn");
+        }
+      }
+    }
+    if (observer.isCancelled()) {
+      throw new CancellationException("client đã hủy luồng");
     }
-
-    return TopicsResponse.newBuilder().addAllTopics(topicResponses).build();
   }
 }
@@ -8,7 +8,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
-@Builder
+@Builder(toBuilder = true)
 public class Base64UploadDto {
   private String imageId;
   private String base64Data;
@@ -17,4 +17,6 @@ public class Base64UploadDto {
   private String postId;
   private int totalImages;
   private String userId;
+  private long requestedAt;
+  private boolean thumbnail;
 }
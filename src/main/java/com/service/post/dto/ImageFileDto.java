@@ -0,0 +1,13 @@
+package com.service.post.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class ImageFileDto {
+  private String fileId;
+  private String url;
+  private String thumbnailFileId;
+  private String thumbnailUrl;
+}
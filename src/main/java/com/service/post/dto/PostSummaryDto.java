@@ -0,0 +1,17 @@
+package com.service.post.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class PostSummaryDto {
+  private String id;
+  private String title;
+  private String topicId;
+  private String topicName;
+  private String topicSlug;
+  private String thumbnailId;
+  private String thumbnailUrl;
+  private Object sortValue;
+}
@@ -8,6 +8,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Entity;
@@ -24,7 +25,8 @@ import lombok.Setter;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "images")
+@Table(name = "images", indexes = { @Index(name = "images_content_hash_idx", columnList = "content_hash"),
+    @Index(name = "images_file_id_idx", columnList = "file_id") })
 public class ImageEntity {
   @Id
   @GeneratedValue(strategy = GenerationType.UUID)
@@ -37,6 +39,15 @@ public class ImageEntity {
   @Column(nullable = true, columnDefinition = "CHAR(24)")
   private String fileId;
 
+  @Column(nullable = true, columnDefinition = "CHAR(64)")
+  private String contentHash;
+
+  @Column(nullable = true, length = 255)
+  private String thumbnailUrl;
+
+  @Column(nullable = true, columnDefinition = "CHAR(24)")
+  private String thumbnailFileId;
+
   @Column(nullable = false)
   private int sortOrder;
 
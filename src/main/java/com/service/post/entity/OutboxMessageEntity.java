@@ -0,0 +1,49 @@
+package com.service.post.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "outbox_messages")
+public class OutboxMessageEntity {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_messages_seq")
+  @SequenceGenerator(name = "outbox_messages_seq", sequenceName = "outbox_messages_seq", allocationSize = 50)
+  private Long id;
+
+  @Column(nullable = false, length = 100)
+  private String exchange;
+
+  @Column(nullable = false, length = 100)
+  private String routingKey;
+
+  @Column(nullable = false, length = 255)
+  private String payloadType;
+
+  @Column(nullable = false, columnDefinition = "TEXT")
+  private String payload;
+
+  @Column(nullable = false)
+  private LocalDateTime createdAt;
+
+  @Column(name = "tx_id", insertable = false, updatable = false,
+      columnDefinition = "BIGINT DEFAULT (pg_current_xact_id()::text::bigint)")
+  private Long txId;
+}
@@ -0,0 +1,56 @@
+package com.service.post.entity;
+
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import com.service.post.common.CompressedTextConverter;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "post_contents")
+public class PostContentEntity {
+  @Id
+  @Column(name = "post_id", nullable = false, columnDefinition = "CHAR(36)")
+  private String postId;
+
+  @MapsId
+  @OneToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "post_id")
+  @OnDelete(action = OnDeleteAction.CASCADE)
+  private PostEntity post;
+
+  @Convert(converter = CompressedTextConverter.class)
+  @Column(nullable = false, columnDefinition = "BYTEA")
+  private String content;
+
+  @Column(nullable = false)
+  @ColumnDefault("0")
+  @Builder.Default
+  private long revision = 0;
+
+  @Column(name = "edit_revision")
+  private Long editRevision;
+
+  @Column(name = "image_patches", columnDefinition = "TEXT")
+  private String imagePatches;
+}
@@ -28,7 +28,8 @@ import lombok.Setter;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "posts", indexes = { @Index(name = "posts_slug_key", columnList = "slug", unique = true) })
+@Table(name = "posts", indexes = { @Index(name = "posts_slug_key", columnList = "slug", unique = true),
+    @Index(name = "posts_created_at_id_idx", columnList = "created_at, id") })
 public class PostEntity extends BaseEntity {
   @Column(nullable = false, length = 255)
   private String title;
@@ -36,9 +37,6 @@ public class PostEntity extends BaseEntity {
   @Column(nullable = false, length = 255)
   private String slug;
 
-  @Column(nullable = false, columnDefinition = "TEXT")
-  private String content;
-
   @Column(name = "is_published", nullable = false)
   @Builder.Default
   private boolean publishedPost = false;
@@ -50,6 +48,12 @@ public class PostEntity extends BaseEntity {
   @Builder.Default
   private boolean deletedPost = false;
 
+  @Column(nullable = true)
+  private LocalDateTime deletedAt;
+
+  @Column(name = "search_vector", insertable = false, updatable = false, columnDefinition = "tsvector")
+  private String searchVector;
+
   @Column(nullable = false, columnDefinition = "CHAR(36)")
   private String createdById;
 
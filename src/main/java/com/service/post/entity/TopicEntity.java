@@ -1,5 +1,6 @@
 package com.service.post.entity;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -33,6 +34,9 @@ public class TopicEntity extends BaseEntity {
   @Builder.Default
   private boolean deletedTopic = false;
 
+  @Column(nullable = true)
+  private LocalDateTime deletedAt;
+
   @Column(nullable = false, columnDefinition = "CHAR(36)")
   private String createdById;
 
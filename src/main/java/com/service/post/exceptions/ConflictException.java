@@ -0,0 +1,7 @@
+package com.service.post.exceptions;
+
+public class ConflictException extends RuntimeException {
+  public ConflictException(String mess) {
+    super(mess);
+  }
+}
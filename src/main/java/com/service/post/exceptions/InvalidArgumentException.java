@@ -0,0 +1,7 @@
+package com.service.post.exceptions;
+
+public class InvalidArgumentException extends RuntimeException {
+  public InvalidArgumentException(String mess) {
+    super(mess);
+  }
+}
@@ -1,7 +1,13 @@
 package com.service.post.grpc_clients;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+
 import io.grpc.StatusRuntimeException;
 import lombok.RequiredArgsConstructor;
 
@@ -17,4 +23,20 @@ public class BaseClient<Stub> {
       throw e;
     }
   }
+
+  <Res> CompletableFuture<Res> callAsync(ListenableFuture<Res> future) {
+    CompletableFuture<Res> result = new CompletableFuture<>();
+    Futures.addCallback(future, new FutureCallback<Res>() {
+      @Override
+      public void onSuccess(Res res) {
+        result.complete(res);
+      }
+
+      @Override
+      public void onFailure(Throwable t) {
+        result.completeExceptionally(t);
+      }
+    }, MoreExecutors.directExecutor());
+    return result;
+  }
 }
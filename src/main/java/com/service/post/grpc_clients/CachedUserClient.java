@@ -0,0 +1,165 @@
+package com.service.post.grpc_clients;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.service.post.redis.RedisService;
+import com.service.user.UserPublicResponse;
+import com.service.user.UsersPublicResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+public class CachedUserClient {
+  private static final String USER_KEY_TYPE = ":user:";
+
+  private final UserClient userClient;
+  private final RedisService redisService;
+  private final ExecutorService userCacheWriteExecutor;
+  private final Cache<String, UserPublicResponse> localCache;
+  private final long redisTtlSeconds;
+
+  private final Counter localHits;
+  private final Counter localMisses;
+  private final Counter redisHits;
+  private final Counter redisMisses;
+
+  public CachedUserClient(UserClient userClient, RedisService redisService,
+      ExecutorService userCacheWriteExecutor, MeterRegistry meterRegistry,
+      @Value("${spring.grpc.services.user.cache.max-size:10000}") long maxSize,
+      @Value("${spring.grpc.services.user.cache.local-ttl-seconds:60}") long localTtlSeconds,
+      @Value("${spring.grpc.services.user.cache.redis-ttl-seconds:600}") long redisTtlSeconds) {
+    this.userClient = userClient;
+    this.redisService = redisService;
+    this.userCacheWriteExecutor = userCacheWriteExecutor;
+    this.redisTtlSeconds = redisTtlSeconds;
+
+    Counter evictions = Counter.builder("user.cache.evictions").tag("tier", "local").register(meterRegistry);
+    this.localCache = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+        .evictionListener((String id, UserPublicResponse user, RemovalCause cause) -> evictions.increment())
+        .build();
+
+    this.localHits = Counter.builder("user.cache.requests").tag("tier", "local").tag("result", "hit")
+        .register(meterRegistry);
+    this.localMisses = Counter.builder("user.cache.requests").tag("tier", "local").tag("result", "miss")
+        .register(meterRegistry);
+    this.redisHits = Counter.builder("user.cache.requests").tag("tier", "redis").tag("result", "hit")
+        .register(meterRegistry);
+    this.redisMisses = Counter.builder("user.cache.requests").tag("tier", "redis").tag("result", "miss")
+        .register(meterRegistry);
+  }
+
+  public UsersPublicResponse getUsersPublicById(List<String> ids) {
+    return getUsersPublicByIdAsync(ids).join();
+  }
+
+  public CompletableFuture<UsersPublicResponse> getUsersPublicByIdAsync(List<String> ids) {
+    Map<String, UserPublicResponse> users = new HashMap<>(localCache.getAllPresent(ids));
+    localHits.increment(users.size());
+
+    List<String> missingIds = new ArrayList<>();
+    for (String id : new LinkedHashSet<>(ids)) {
+      if (!users.containsKey(id)) {
+        missingIds.add(id);
+      }
+    }
+    localMisses.increment(missingIds.size());
+
+    if (!missingIds.isEmpty()) {
+      missingIds = loadFromRedis(missingIds, users);
+    }
+
+    if (missingIds.isEmpty()) {
+      return CompletableFuture.completedFuture(toUsersResponse(users));
+    }
+
+    return userClient.getUsersPublicByIdAsync(missingIds).handle((usersRes, e) -> {
+      if (e != null) {
+        log.warn("Lấy thông tin người dùng thất bại, trả về dữ liệu trong bộ nhớ đệm: {}", e.getMessage());
+      } else {
+        storeUsers(usersRes, users);
+      }
+      return toUsersResponse(users);
+    });
+  }
+
+  private List<String> loadFromRedis(List<String> ids, Map<String, UserPublicResponse> users) {
+    List<String> keys = ids.stream().map(id -> redisService.setKey(id, USER_KEY_TYPE)).toList();
+
+    List<String> values;
+    try {
+      values = redisService.getStrings(keys);
+    } catch (RuntimeException e) {
+      log.warn("Không đọc được bộ nhớ đệm người dùng trong Redis: {}", e.getMessage());
+      return ids;
+    }
+
+    List<String> missingIds = new ArrayList<>();
+    for (int i = 0; i < ids.size(); i++) {
+      String value = values != null ? values.get(i) : null;
+      UserPublicResponse user = value != null ? decode(value) : null;
+      if (user == null) {
+        missingIds.add(ids.get(i));
+        continue;
+      }
+      users.put(user.getId(), user);
+      localCache.put(user.getId(), user);
+    }
+
+    redisHits.increment(ids.size() - missingIds.size());
+    redisMisses.increment(missingIds.size());
+    return missingIds;
+  }
+
+  private void storeUsers(UsersPublicResponse usersRes, Map<String, UserPublicResponse> users) {
+    Map<String, String> entries = new HashMap<>();
+    for (UserPublicResponse user : usersRes.getUsersList()) {
+      users.put(user.getId(), user);
+      localCache.put(user.getId(), user);
+      entries.put(redisService.setKey(user.getId(), USER_KEY_TYPE),
+          Base64.getEncoder().encodeToString(user.toByteArray()));
+    }
+
+    if (entries.isEmpty()) {
+      return;
+    }
+    userCacheWriteExecutor.execute(() -> {
+      try {
+        redisService.saveStrings(entries, redisTtlSeconds, TimeUnit.SECONDS);
+      } catch (RuntimeException e) {
+        log.warn("Không ghi được bộ nhớ đệm người dùng vào Redis: {}", e.getMessage());
+      }
+    });
+  }
+
+  private UsersPublicResponse toUsersResponse(Map<String, UserPublicResponse> users) {
+    return UsersPublicResponse.newBuilder().addAllUsers(users.values()).build();
+  }
+
+  private UserPublicResponse decode(String value) {
+    try {
+      return UserPublicResponse.parseFrom(Base64.getDecoder().decode(value));
+    } catch (InvalidProtocolBufferException | IllegalArgumentException e) {
+      log.warn("Dữ liệu người dùng trong Redis không hợp lệ: {}", e.getMessage());
+      return null;
+    }
+  }
+}
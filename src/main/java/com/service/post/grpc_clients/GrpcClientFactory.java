@@ -9,12 +9,17 @@ import org.springframework.stereotype.Component;
 
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.grpc.MetricCollectingClientInterceptor;
 import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Component
 @Slf4j
+@RequiredArgsConstructor
 public class GrpcClientFactory {
+  private final MeterRegistry meterRegistry;
   private final Map<String, ManagedChannel> channels = new ConcurrentHashMap<>();
 
   public <T> T getStub(String target, Function<ManagedChannel, T> stubFn) {
@@ -22,7 +27,10 @@ public class GrpcClientFactory {
       log.info("Đang tạo kênh gRPC tới {}", t);
       return ManagedChannelBuilder.forTarget(t).usePlaintext().keepAliveTime(5, TimeUnit.MINUTES)
           .keepAliveTimeout(20, TimeUnit.SECONDS).keepAliveWithoutCalls(true).enableRetry().maxRetryAttempts(3)
-          .idleTimeout(5, TimeUnit.MINUTES).build();
+          .idleTimeout(5, TimeUnit.MINUTES)
+          .intercept(new MetricCollectingClientInterceptor(meterRegistry, counter -> counter,
+              timer -> timer.publishPercentileHistogram()))
+          .build();
     });
     return stubFn.apply(channel);
   }
@@ -1,6 +1,7 @@
 package com.service.post.grpc_clients;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Value;
@@ -28,10 +29,13 @@ public class UserClient extends BaseClient<UserServiceGrpc.UserServiceBlockingSt
 
   private String target;
 
+  private UserServiceGrpc.UserServiceFutureStub futureStub;
+
   @PostConstruct
   public void init() {
     target = grpcHost + ":" + userPort;
     stub = factory.getStub(target, UserServiceGrpc::newBlockingStub);
+    futureStub = factory.getStub(target, UserServiceGrpc::newFutureStub);
   }
 
   public UserPublicResponse getUserPublicById(String id) {
@@ -43,4 +47,9 @@ public class UserClient extends BaseClient<UserServiceGrpc.UserServiceBlockingSt
     GetManyRequest request = GetManyRequest.newBuilder().addAllIds(ids).build();
     return (UsersPublicResponse) call(s -> s.withDeadlineAfter(3, TimeUnit.SECONDS).getUsersPublicById(request), 3);
   }
+
+  public CompletableFuture<UsersPublicResponse> getUsersPublicByIdAsync(List<String> ids) {
+    GetManyRequest request = GetManyRequest.newBuilder().addAllIds(ids).build();
+    return callAsync(futureStub.withDeadlineAfter(3, TimeUnit.SECONDS).getUsersPublicById(request));
+  }
 }
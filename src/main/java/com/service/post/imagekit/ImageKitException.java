@@ -0,0 +1,17 @@
+package com.service.post.imagekit;
+
+import lombok.Getter;
+
+@Getter
+public class ImageKitException extends RuntimeException {
+  private final boolean retryable;
+  private final boolean rateLimited;
+  private final long retryAfterMs;
+
+  public ImageKitException(String mess, boolean retryable, boolean rateLimited, long retryAfterMs) {
+    super(mess);
+    this.retryable = retryable;
+    this.rateLimited = rateLimited;
+    this.retryAfterMs = retryAfterMs;
+  }
+}
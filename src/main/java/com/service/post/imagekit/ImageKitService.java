@@ -1,5 +1,7 @@
 package com.service.post.imagekit;
 
+import java.util.List;
+
 import com.service.post.dto.Base64UploadDto;
 
 import io.imagekit.sdk.models.results.Result;
@@ -8,4 +10,6 @@ public interface ImageKitService {
   Result uploadFromBase64(Base64UploadDto dto);
 
   void deleteImage(String fileId);
+
+  List<String> deleteImages(List<String> fileIds);
 }
@@ -1,36 +1,97 @@
 package com.service.post.imagekit;
 
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.stereotype.Service;
 
+import com.service.post.common.MetricsUtil;
 import com.service.post.dto.Base64UploadDto;
 
 import io.imagekit.sdk.ImageKit;
+import io.imagekit.sdk.exceptions.BadRequestException;
+import io.imagekit.sdk.exceptions.ForbiddenException;
+import io.imagekit.sdk.exceptions.NotFoundException;
+import io.imagekit.sdk.exceptions.TooManyRequestsException;
+import io.imagekit.sdk.exceptions.UnauthorizedException;
 import io.imagekit.sdk.models.FileCreateRequest;
+import io.imagekit.sdk.models.ResponseMetaData;
 import io.imagekit.sdk.models.results.Result;
+import io.imagekit.sdk.models.results.ResultFileDelete;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class ImageKitServiceImpl implements ImageKitService {
+  private static final String RATE_LIMIT_RESET_HEADER = "X-RateLimit-Reset";
+
   private final ImageKit imageKit;
+  private final MeterRegistry meterRegistry;
 
   @Override
   public Result uploadFromBase64(Base64UploadDto dto) {
-    try {
-      FileCreateRequest request = new FileCreateRequest(dto.getBase64Data(), dto.getFileName());
-      request.setFolder(dto.getFolder());
-      return imageKit.upload(request);
-    } catch (Exception e) {
-      throw new RuntimeException("Upload ảnh thất bại: " + e.getMessage());
-    }
+    return MetricsUtil.timed(meterRegistry, Timer.builder("imagekit.requests").tag("operation", "upload"), () -> {
+      try {
+        FileCreateRequest request = new FileCreateRequest(dto.getBase64Data(), dto.getFileName());
+        request.setFolder(dto.getFolder());
+        return imageKit.upload(request);
+      } catch (TooManyRequestsException e) {
+        throw new ImageKitException("ImageKit giới hạn tần suất tải ảnh: " + e.getMessage(), true, true,
+            rateLimitResetMs(e.getResponseMetaData()));
+      } catch (BadRequestException | UnauthorizedException | ForbiddenException e) {
+        throw new ImageKitException("Upload ảnh thất bại: " + e.getMessage(), false, false, -1);
+      } catch (Exception e) {
+        throw new ImageKitException("Upload ảnh thất bại: " + e.getMessage(), true, false, -1);
+      }
+    });
   }
 
   @Override
   public void deleteImage(String fileId) {
-    try {
-      imageKit.deleteFile(fileId);
-    } catch (Exception e) {
-      throw new RuntimeException("Xóa ảnh thất bại: " + e.getMessage());
+    MetricsUtil.timed(meterRegistry, Timer.builder("imagekit.requests").tag("operation", "delete"), () -> {
+      try {
+        imageKit.deleteFile(fileId);
+      } catch (NotFoundException e) {
+        return;
+      } catch (Exception e) {
+        throw new RuntimeException("Xóa ảnh thất bại: " + e.getMessage());
+      }
+    });
+  }
+
+  @Override
+  public List<String> deleteImages(List<String> fileIds) {
+    return MetricsUtil.timed(meterRegistry, Timer.builder("imagekit.requests").tag("operation", "bulk_delete"), () -> {
+      try {
+        ResultFileDelete result = imageKit.bulkDeleteFiles(fileIds);
+        return result.getSuccessfullyDeletedFileIds() != null ? result.getSuccessfullyDeletedFileIds() : List.of();
+      } catch (TooManyRequestsException e) {
+        throw new ImageKitException("ImageKit giới hạn tần suất xóa ảnh: " + e.getMessage(), true, true,
+            rateLimitResetMs(e.getResponseMetaData()));
+      } catch (NotFoundException | BadRequestException | UnauthorizedException | ForbiddenException e) {
+        throw new ImageKitException("Xóa ảnh hàng loạt thất bại: " + e.getMessage(), false, false, -1);
+      } catch (Exception e) {
+        throw new ImageKitException("Xóa ảnh hàng loạt thất bại: " + e.getMessage(), true, false, -1);
+      }
+    });
+  }
+
+  private static long rateLimitResetMs(ResponseMetaData metaData) {
+    Map<String, String> headers = metaData != null ? metaData.getHeaders() : null;
+    if (headers == null) {
+      return -1;
+    }
+    for (Map.Entry<String, String> header : headers.entrySet()) {
+      if (RATE_LIMIT_RESET_HEADER.equalsIgnoreCase(header.getKey())) {
+        try {
+          return Long.parseLong(header.getValue().trim());
+        } catch (NumberFormatException e) {
+          return -1;
+        }
+      }
     }
+    return -1;
   }
 }
@@ -0,0 +1,114 @@
+package com.service.post.imagekit;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Base64;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.service.post.common.ImageNormalizer;
+import com.service.post.common.MetricsUtil;
+import com.service.post.dto.Base64UploadDto;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+public class ImagePreprocessor {
+  private final MeterRegistry meterRegistry;
+  private final boolean enabled;
+  private final int maxDimension;
+  private final int thumbnailDimension;
+  private final float quality;
+
+  private final DistributionSummary inputBytes;
+  private final DistributionSummary outputBytes;
+
+  public ImagePreprocessor(MeterRegistry meterRegistry,
+      @Value("${spring.imagekit.processing.enabled:true}") boolean enabled,
+      @Value("${spring.imagekit.processing.max-dimension:2048}") int maxDimension,
+      @Value("${spring.imagekit.processing.thumbnail-dimension:320}") int thumbnailDimension,
+      @Value("${spring.imagekit.processing.quality:0.82}") float quality) {
+    this.meterRegistry = meterRegistry;
+    this.enabled = enabled;
+    this.maxDimension = maxDimension;
+    this.thumbnailDimension = thumbnailDimension;
+    this.quality = quality;
+
+    this.inputBytes = DistributionSummary.builder("image.processing.bytes").baseUnit("bytes").tag("stage", "input")
+        .register(meterRegistry);
+    this.outputBytes = DistributionSummary.builder("image.processing.bytes").baseUnit("bytes")
+        .tag("stage", "output").register(meterRegistry);
+  }
+
+  @AllArgsConstructor
+  @Getter
+  public static class PreparedUpload {
+    private final Base64UploadDto image;
+    private final Base64UploadDto thumbnail;
+  }
+
+  public PreparedUpload prepare(Base64UploadDto message) {
+    if (!enabled) {
+      return new PreparedUpload(message, null);
+    }
+
+    try {
+      return MetricsUtil.timed(meterRegistry, Timer.builder("image.processing"), () -> {
+        try {
+          return normalize(message);
+        } catch (IOException e) {
+          throw new IllegalStateException(e.getMessage(), e);
+        }
+      });
+    } catch (RuntimeException e) {
+      log.warn("Không xử lý được ảnh {}, tải lên ảnh gốc: {}", message.getImageId(), e.getMessage());
+      return new PreparedUpload(message, null);
+    }
+  }
+
+  private PreparedUpload normalize(Base64UploadDto message) throws IOException {
+    byte[] original = Base64.getDecoder().decode(message.getBase64Data());
+    ImageNormalizer.DecodedImage decoded = ImageNormalizer.decode(original, maxDimension);
+    if (decoded == null) {
+      return new PreparedUpload(message, null);
+    }
+
+    BufferedImage image = ImageNormalizer.scaleToFit(decoded.getImage(), maxDimension);
+    boolean resized = image.getWidth() != decoded.getSourceWidth()
+        || image.getHeight() != decoded.getSourceHeight();
+    byte[] normalized = ImageNormalizer.encode(image, decoded.getFormat(), quality);
+    if (!resized && !decoded.isReoriented()) {
+      byte[] stripped = ImageNormalizer.stripMetadata(original, decoded.getFormat());
+      if (stripped.length <= normalized.length) {
+        normalized = stripped;
+      }
+    }
+    inputBytes.record(original.length);
+    outputBytes.record(normalized.length);
+
+    Base64UploadDto thumbnail = null;
+    if (message.isThumbnail()) {
+      BufferedImage small = ImageNormalizer.scaleToFit(image, thumbnailDimension);
+      String format = small.getColorModel().hasAlpha() ? ImageNormalizer.PNG : ImageNormalizer.JPEG;
+      thumbnail = message.toBuilder().fileName(thumbnailFileName(message.getFileName(), format))
+          .base64Data(Base64.getEncoder().encodeToString(ImageNormalizer.encode(small, format, quality))).build();
+    }
+
+    Base64UploadDto main = normalized == original ? message
+        : message.toBuilder().base64Data(Base64.getEncoder().encodeToString(normalized)).build();
+    return new PreparedUpload(main, thumbnail);
+  }
+
+  private static String thumbnailFileName(String fileName, String format) {
+    int dot = fileName.lastIndexOf('.');
+    String base = dot > 0 ? fileName.substring(0, dot) : fileName;
+    return base + "_thumb." + (ImageNormalizer.JPEG.equals(format) ? "jpg" : format);
+  }
+}
@@ -0,0 +1,31 @@
+package com.service.post.mq;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Binding;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import com.service.post.config.RabbitMQConfig;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DeleteQueueMigration implements SmartInitializingSingleton {
+  private final AmqpAdmin amqpAdmin;
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    try {
+      amqpAdmin.removeBinding(new Binding(RabbitMQConfig.DELETE_QUEUE_NAME, Binding.DestinationType.QUEUE,
+          RabbitMQConfig.EXCHANGE, RabbitMQConfig.DELETE_ROUTING_KEY, null));
+      log.info("Đã gỡ binding của hàng đợi {}, yêu cầu xóa ảnh mới đi vào {}", RabbitMQConfig.DELETE_QUEUE_NAME,
+          RabbitMQConfig.DELETE_WORK_QUEUE_NAME);
+    } catch (AmqpException e) {
+      log.warn("Không gỡ được binding của hàng đợi {}: {}", RabbitMQConfig.DELETE_QUEUE_NAME, e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package com.service.post.mq;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.service.post.config.RabbitMQConfig;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@Endpoint(id = "imagedlq")
+@RequiredArgsConstructor
+public class ImageDeadLetterEndpoint {
+  private static final int DEFAULT_REPLAY_LIMIT = 1000;
+
+  private final ImageRetryRouter imageRetryRouter;
+  private final ImageQueueMetrics imageQueueMetrics;
+
+  @ReadOperation
+  public Map<String, Long> sizes() {
+    Map<String, Long> sizes = new LinkedHashMap<>();
+    RabbitMQConfig.RETRYABLE_QUEUES.forEach(queue -> sizes.put(queue,
+        imageQueueMetrics.depth(RabbitMQConfig.deadLetterQueueName(queue))));
+    return sizes;
+  }
+
+  @WriteOperation
+  public int replay(String queue, @Nullable Integer limit) {
+    if (!RabbitMQConfig.RETRYABLE_QUEUES.contains(queue)) {
+      throw new IllegalArgumentException("Hàng đợi không hợp lệ: " + queue);
+    }
+    return imageRetryRouter.replay(queue, limit != null && limit > 0 ? limit : DEFAULT_REPLAY_LIMIT);
+  }
+}
@@ -0,0 +1,162 @@
+package com.service.post.mq;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.collect.Lists;
+import com.rabbitmq.client.Channel;
+import com.service.post.config.RabbitMQConfig;
+import com.service.post.imagekit.ImageKitException;
+import com.service.post.imagekit.ImageKitService;
+import com.service.post.repository.ImageRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+public class ImageDeleteBatcher {
+  private final ImageKitService imageKitService;
+  private final ImageRepository imageRepository;
+  private final ImageRetryRouter imageRetryRouter;
+  private final Jackson2JsonMessageConverter jsonMessageConverter;
+  private final int chunkSize;
+
+  private final Counter deleted;
+  private final Counter skipped;
+  private final Counter failed;
+
+  public ImageDeleteBatcher(ImageKitService imageKitService, ImageRepository imageRepository,
+      ImageRetryRouter imageRetryRouter, Jackson2JsonMessageConverter jsonMessageConverter,
+      MeterRegistry meterRegistry, @Value("${spring.imagekit.delete.chunk-size:100}") int chunkSize) {
+    this.imageKitService = imageKitService;
+    this.imageRepository = imageRepository;
+    this.imageRetryRouter = imageRetryRouter;
+    this.jsonMessageConverter = jsonMessageConverter;
+    this.chunkSize = chunkSize;
+
+    this.deleted = Counter.builder("image.delete.files").tag("result", "deleted").register(meterRegistry);
+    this.skipped = Counter.builder("image.delete.files").tag("result", "skipped").register(meterRegistry);
+    this.failed = Counter.builder("image.delete.files").tag("result", "failed").register(meterRegistry);
+  }
+
+  public void delete(List<Message> messages, Channel channel) {
+    Set<Message> unsettled = Collections.newSetFromMap(new IdentityHashMap<>());
+    unsettled.addAll(messages);
+    try {
+      delete(messages, channel, unsettled);
+    } catch (RuntimeException e) {
+      log.error("Xử lý {} yêu cầu xóa ảnh thất bại, chuyển sang thử lại: {}", unsettled.size(), e.getMessage());
+      for (Message message : List.copyOf(unsettled)) {
+        settle(channel, unsettled, message,
+            imageRetryRouter.retry(RabbitMQConfig.DELETE_QUEUE_NAME, message, e.getMessage()));
+      }
+    }
+  }
+
+  private void delete(List<Message> messages, Channel channel, Set<Message> unsettled) {
+    Map<String, List<Message>> messagesByFileId = new LinkedHashMap<>();
+    for (Message message : messages) {
+      String fileId;
+      try {
+        fileId = (String) jsonMessageConverter.fromMessage(message);
+      } catch (RuntimeException e) {
+        log.error("Không đọc được yêu cầu xóa ảnh: {}", e.getMessage());
+        settle(channel, unsettled, message,
+            imageRetryRouter.deadLetter(RabbitMQConfig.DELETE_QUEUE_NAME, message, e.getMessage()));
+        continue;
+      }
+
+      if (fileId == null || fileId.isBlank()) {
+        skipped.increment();
+        settle(channel, unsettled, message, true);
+        continue;
+      }
+      messagesByFileId.computeIfAbsent(fileId.trim(), id -> new ArrayList<>()).add(message);
+    }
+
+    if (!messagesByFileId.isEmpty()) {
+      imageRepository.findFileIdsIn(messagesByFileId.keySet()).forEach(fileId -> {
+        List<Message> referenced = messagesByFileId.remove(fileId.trim());
+        if (referenced != null) {
+          skipped.increment();
+          log.info("Bỏ qua xóa hình ảnh có FileID: {} vì vẫn còn bài viết sử dụng", fileId.trim());
+          referenced.forEach(message -> settle(channel, unsettled, message, true));
+        }
+      });
+    }
+
+    for (List<String> chunk : Lists.partition(new ArrayList<>(messagesByFileId.keySet()), chunkSize)) {
+      Map<String, String> failures = deleteChunk(chunk);
+      for (String fileId : chunk) {
+        String failure = failures.get(fileId);
+        if (failure != null) {
+          failed.increment();
+        }
+        for (Message message : messagesByFileId.get(fileId)) {
+          settle(channel, unsettled, message, failure == null
+              || imageRetryRouter.retry(RabbitMQConfig.DELETE_QUEUE_NAME, message, failure));
+        }
+      }
+    }
+  }
+
+  private void settle(Channel channel, Set<Message> unsettled, Message message, boolean forwarded) {
+    unsettled.remove(message);
+    long deliveryTag = message.getMessageProperties().getDeliveryTag();
+    try {
+      if (forwarded) {
+        channel.basicAck(deliveryTag, false);
+      } else {
+        channel.basicNack(deliveryTag, false, true);
+      }
+    } catch (IOException | RuntimeException e) {
+      log.warn("Không xác nhận được yêu cầu xóa ảnh {}, tin nhắn sẽ được giao lại: {}", deliveryTag,
+          e.getMessage());
+    }
+  }
+
+  private Map<String, String> deleteChunk(List<String> fileIds) {
+    Map<String, String> failures = new LinkedHashMap<>();
+    Set<String> remaining = new HashSet<>(fileIds);
+    try {
+      imageKitService.deleteImages(fileIds).forEach(fileId -> remaining.remove(fileId.trim()));
+      deleted.increment(fileIds.size() - remaining.size());
+      log.info("Xóa {} hình ảnh trên ImageKit thành công", fileIds.size() - remaining.size());
+    } catch (ImageKitException e) {
+      if (e.isRetryable()) {
+        log.warn("Xóa {} hình ảnh hàng loạt thất bại, chuyển sang thử lại: {}", fileIds.size(), e.getMessage());
+        fileIds.forEach(fileId -> failures.put(fileId, e.getMessage()));
+        return failures;
+      }
+      log.warn("Xóa {} hình ảnh hàng loạt thất bại, xóa lần lượt từng ảnh: {}", fileIds.size(), e.getMessage());
+    }
+
+    for (String fileId : fileIds) {
+      if (!remaining.contains(fileId)) {
+        continue;
+      }
+      try {
+        imageKitService.deleteImage(fileId);
+        deleted.increment();
+        log.info("Xóa hình ảnh có FileID: {} thành công", fileId);
+      } catch (RuntimeException e) {
+        failures.put(fileId, e.getMessage());
+      }
+    }
+    return failures;
+  }
+}
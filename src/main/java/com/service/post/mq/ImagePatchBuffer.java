@@ -0,0 +1,237 @@
+package com.service.post.mq;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.service.post.common.InlineImageScanner;
+import com.service.post.dto.Base64UploadDto;
+import com.service.post.dto.ImageUploadedDto;
+import com.service.post.entity.ImageEntity;
+import com.service.post.entity.PostContentEntity;
+import com.service.post.exceptions.ResourceNotFoundException;
+import com.service.post.redis.RedisService;
+import com.service.post.repository.ImageRepository;
+import com.service.post.repository.PostContentRepository;
+import com.service.post.service.ImageDedupService;
+import com.service.post.service.PostDetailsCache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+public class ImagePatchBuffer {
+  public static final String PENDING_IMAGES_KEY_TYPE = ":image-pending:";
+
+  private final PostContentRepository postContentRepository;
+  private final ImageRepository imageRepository;
+  private final RedisService redisService;
+  private final Publisher publisher;
+  private final ImageDedupService imageDedupService;
+  private final PostDetailsCache postDetailsCache;
+  private final ImagePipelineMetrics imagePipelineMetrics;
+  private final TransactionTemplate transactionTemplate;
+  private final ScheduledExecutorService imagePatchScheduler;
+  private final ExecutorService imagePatchExecutor;
+  private final long lingerMs;
+
+  private final Map<String, Batch> batches = new ConcurrentHashMap<>();
+
+  public ImagePatchBuffer(PostContentRepository postContentRepository, ImageRepository imageRepository,
+      RedisService redisService, Publisher publisher, ImageDedupService imageDedupService,
+      PostDetailsCache postDetailsCache, ImagePipelineMetrics imagePipelineMetrics,
+      TransactionTemplate transactionTemplate, ScheduledExecutorService imagePatchScheduler,
+      ExecutorService imagePatchExecutor, @Value("${spring.rabbitmq.upload.patch-linger-ms:200}") long lingerMs) {
+    this.postContentRepository = postContentRepository;
+    this.imageRepository = imageRepository;
+    this.redisService = redisService;
+    this.publisher = publisher;
+    this.imageDedupService = imageDedupService;
+    this.postDetailsCache = postDetailsCache;
+    this.imagePipelineMetrics = imagePipelineMetrics;
+    this.transactionTemplate = transactionTemplate;
+    this.imagePatchScheduler = imagePatchScheduler;
+    this.imagePatchExecutor = imagePatchExecutor;
+    this.lingerMs = lingerMs;
+  }
+
+  @AllArgsConstructor
+  @Getter
+  private static class UploadedImage {
+    private final String imageId;
+    private final String fileId;
+    private final String url;
+    private final String thumbnailFileId;
+    private final String thumbnailUrl;
+    private final CompletableFuture<Void> done;
+  }
+
+  private static class Batch {
+    private final String postId;
+    private final String userId;
+    private final int expected;
+    private final long requestedAt;
+    private final List<UploadedImage> images = new ArrayList<>();
+    private ScheduledFuture<?> lingerTask;
+
+    Batch(String postId, String userId, int expected, long requestedAt) {
+      this.postId = postId;
+      this.userId = userId;
+      this.expected = expected;
+      this.requestedAt = requestedAt;
+    }
+  }
+
+  public CompletableFuture<Void> add(Base64UploadDto message, String fileId, String url, String thumbnailFileId,
+      String thumbnailUrl) {
+    CompletableFuture<Void> done = new CompletableFuture<>();
+    UploadedImage image = new UploadedImage(message.getImageId(), fileId, url, thumbnailFileId, thumbnailUrl, done);
+    Batch[] full = new Batch[1];
+    int expected = batches.containsKey(message.getPostId()) ? message.getTotalImages()
+        : pendingImages(message.getPostId(), message.getTotalImages());
+
+    batches.compute(message.getPostId(), (postId, batch) -> {
+      if (batch == null) {
+        batch = new Batch(postId, message.getUserId(), expected, message.getRequestedAt());
+        Batch lingering = batch;
+        batch.lingerTask = imagePatchScheduler.schedule(() -> imagePatchExecutor.execute(() -> flush(lingering)),
+            lingerMs, TimeUnit.MILLISECONDS);
+      }
+      batch.images.add(image);
+      if (batch.images.size() >= batch.expected) {
+        full[0] = batch;
+      }
+      return batch;
+    });
+
+    if (full[0] != null) {
+      flush(full[0]);
+    }
+    return done;
+  }
+
+  @PreDestroy
+  public void flushAll() {
+    batches.values().forEach(this::flush);
+  }
+
+  private void flush(Batch batch) {
+    if (!batches.remove(batch.postId, batch)) {
+      return;
+    }
+    batch.lingerTask.cancel(false);
+
+    List<ImageEntity> images;
+    try {
+      images = transactionTemplate.execute(status -> applyBatch(batch));
+    } catch (RuntimeException e) {
+      log.error("Cập nhật {} ảnh của bài viết {} thất bại: {}", batch.images.size(), batch.postId, e.getMessage());
+      batch.images.forEach(image -> image.getDone().completeExceptionally(e));
+      return;
+    }
+
+    images.forEach(imageDedupService::rememberUploaded);
+
+    try {
+      notifyProgress(batch);
+    } catch (RuntimeException e) {
+      log.warn("Không cập nhật được tiến độ tải ảnh của bài viết {}: {}", batch.postId, e.getMessage());
+    }
+    batch.images.forEach(image -> image.getDone().complete(null));
+  }
+
+  private List<ImageEntity> applyBatch(Batch batch) {
+    Map<String, UploadedImage> uploadedById = new HashMap<>();
+    batch.images.forEach(image -> uploadedById.put(image.getImageId(), image));
+
+    PostContentEntity postContent = postContentRepository.findByPostIdForUpdate(batch.postId)
+        .orElseThrow(() -> new ResourceNotFoundException("không tìm thấy bài viết"));
+
+    List<ImageEntity> images = imageRepository.findAllById(uploadedById.keySet());
+    if (images.size() != uploadedById.size()) {
+      Map<String, UploadedImage> missing = new HashMap<>(uploadedById);
+      images.forEach(image -> missing.remove(image.getId()));
+      log.warn("Bỏ qua {} ảnh đã bị xóa khỏi bài viết {} trong lúc tải lên", missing.size(), batch.postId);
+      imageDedupService.releaseImages(missing.values().stream().map(uploaded -> ImageEntity.builder()
+          .id(uploaded.getImageId()).fileId(uploaded.getFileId()).thumbnailFileId(uploaded.getThumbnailFileId())
+          .build()).toList());
+      if (images.isEmpty()) {
+        return images;
+      }
+    }
+
+    Map<String, String> urlsByImageId = new HashMap<>();
+    for (ImageEntity image : images) {
+      UploadedImage uploaded = uploadedById.get(image.getId());
+      image.setFileId(uploaded.getFileId());
+      image.setUrl(uploaded.getUrl());
+      if (uploaded.getThumbnailFileId() != null) {
+        image.setThumbnailFileId(uploaded.getThumbnailFileId());
+        image.setThumbnailUrl(uploaded.getThumbnailUrl());
+      }
+      urlsByImageId.put(image.getId(), uploaded.getUrl());
+    }
+    imageRepository.saveAll(images);
+
+    postContent.setContent(InlineImageScanner.replacePlaceholders(postContent.getContent(), urlsByImageId));
+    if (postContent.getEditRevision() == null) {
+      postContent.setEditRevision(postContent.getRevision());
+    }
+    long revision = postContent.getRevision() + 1;
+    postContent.setRevision(revision);
+    String imagePatches = urlsByImageId.keySet().stream().map(imageId -> imageId + ":" + revision)
+        .collect(Collectors.joining(","));
+    if (postContent.getImagePatches() != null && !postContent.getImagePatches().isEmpty()) {
+      imagePatches = postContent.getImagePatches() + "," + imagePatches;
+    }
+    postContent.setImagePatches(imagePatches);
+    postContentRepository.save(postContent);
+    postDetailsCache.invalidate(batch.postId);
+
+    log.info("Đã thay src {} ảnh của bài viết {}", urlsByImageId.size(), batch.postId);
+    return images;
+  }
+
+  private void notifyProgress(Batch batch) {
+    String pendingKey = redisService.setKey(batch.postId, PENDING_IMAGES_KEY_TYPE);
+    List<String> imageIds = batch.images.stream().map(UploadedImage::getImageId).toList();
+    int qImgPending = redisService.removeHashFields(pendingKey, imageIds);
+
+    if (qImgPending < 0) {
+      log.info("Bỏ qua {} ảnh của bài viết {} đã được ghi nhận trước đó", imageIds.size(), batch.postId);
+      return;
+    }
+    log.info("Bài viết {} còn {} ảnh chờ tải lên", batch.postId, qImgPending);
+
+    if (qImgPending == 0) {
+      ImageUploadedDto uploadedMess = ImageUploadedDto.builder().service("post").userId(batch.userId)
+          .postId(batch.postId).build();
+      publisher.sendUploadedAllImages(uploadedMess);
+      imagePipelineMetrics.uploadedAll(batch.requestedAt);
+    }
+  }
+
+  private int pendingImages(String postId, int totalImages) {
+    try {
+      int pending = redisService.hashSize(redisService.setKey(postId, PENDING_IMAGES_KEY_TYPE));
+      return pending > 0 ? pending : totalImages;
+    } catch (RuntimeException e) {
+      return totalImages;
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.service.post.mq;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@Component
+public class ImagePipelineMetrics {
+  private final AtomicLong queueLagMillis = new AtomicLong();
+  private final AtomicLong endToEndMillis = new AtomicLong();
+  private final Timer queueLag;
+  private final Timer endToEnd;
+
+  public ImagePipelineMetrics(MeterRegistry meterRegistry) {
+    Gauge.builder("image.pipeline.queue.lag.current", queueLagMillis, lag -> lag.get() / 1000.0)
+        .baseUnit("seconds").register(meterRegistry);
+    Gauge.builder("image.pipeline.end-to-end.current", endToEndMillis, time -> time.get() / 1000.0)
+        .baseUnit("seconds").register(meterRegistry);
+    this.queueLag = Timer.builder("image.pipeline.queue.lag").publishPercentileHistogram()
+        .maximumExpectedValue(Duration.ofMinutes(10)).register(meterRegistry);
+    this.endToEnd = Timer.builder("image.pipeline.end-to-end").publishPercentileHistogram()
+        .maximumExpectedValue(Duration.ofMinutes(10)).register(meterRegistry);
+  }
+
+  public void received(long requestedAt) {
+    record(requestedAt, queueLagMillis, queueLag);
+  }
+
+  public void uploadedAll(long requestedAt) {
+    record(requestedAt, endToEndMillis, endToEnd);
+  }
+
+  private void record(long requestedAt, AtomicLong current, Timer timer) {
+    if (requestedAt <= 0) {
+      return;
+    }
+    long millis = Math.max(System.currentTimeMillis() - requestedAt, 0);
+    current.set(millis);
+    timer.record(millis, TimeUnit.MILLISECONDS);
+  }
+}
@@ -0,0 +1,62 @@
+package com.service.post.mq;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.service.post.config.RabbitMQConfig;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+public class ImageQueueMetrics {
+  private final AmqpAdmin amqpAdmin;
+  private final List<String> queues = new ArrayList<>();
+  private final Map<String, Long> depths = new ConcurrentHashMap<>();
+
+  public ImageQueueMetrics(AmqpAdmin amqpAdmin, MeterRegistry meterRegistry,
+      @Value("${spring.rabbitmq.retry.delays-ms:5000,30000,300000}") List<Long> retryDelaysMs) {
+    this.amqpAdmin = amqpAdmin;
+
+    for (String queue : RabbitMQConfig.RETRYABLE_QUEUES) {
+      for (long delayMs : retryDelaysMs) {
+        String retryQueue = RabbitMQConfig.retryQueueName(queue, delayMs);
+        queues.add(retryQueue);
+        Gauge.builder("image.queue.retry.depth", depths, d -> d.getOrDefault(retryQueue, 0L)).tag("queue", queue)
+            .tag("delay", delayMs + "ms").register(meterRegistry);
+      }
+
+      String deadLetterQueue = RabbitMQConfig.deadLetterQueueName(queue);
+      queues.add(deadLetterQueue);
+      Gauge.builder("image.queue.dlq.size", depths, d -> d.getOrDefault(deadLetterQueue, 0L)).tag("queue", queue)
+          .register(meterRegistry);
+    }
+  }
+
+  public long depth(String queue) {
+    return depths.getOrDefault(queue, 0L);
+  }
+
+  @Scheduled(fixedDelayString = "${spring.rabbitmq.retry.metrics-refresh-ms:15000}")
+  public void refresh() {
+    for (String queue : queues) {
+      try {
+        QueueInformation info = amqpAdmin.getQueueInfo(queue);
+        depths.put(queue, info != null ? (long) info.getMessageCount() : 0L);
+      } catch (AmqpException e) {
+        log.warn("Không đọc được số thông điệp của hàng đợi {}: {}", queue, e.getMessage());
+      }
+    }
+  }
+}
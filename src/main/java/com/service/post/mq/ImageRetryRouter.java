@@ -0,0 +1,143 @@
+package com.service.post.mq;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.amqp.rabbit.support.MessagePropertiesConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.rabbitmq.client.GetResponse;
+import com.service.post.config.RabbitMQConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+public class ImageRetryRouter {
+  public static final String RETRY_COUNT_HEADER = "x-retry-count";
+  public static final String ERROR_HEADER = "x-exception-message";
+
+  private final RabbitTemplate rabbitTemplate;
+  private final MessagePropertiesConverter messagePropertiesConverter = new DefaultMessagePropertiesConverter();
+  private final MeterRegistry meterRegistry;
+  private final List<Long> retryDelaysMs;
+  private final long confirmTimeoutMs;
+
+  public ImageRetryRouter(RabbitTemplate rabbitTemplate, MeterRegistry meterRegistry,
+      @Value("${spring.rabbitmq.retry.delays-ms:5000,30000,300000}") List<Long> retryDelaysMs,
+      @Value("${spring.rabbitmq.outbox.confirm-timeout-ms:5000}") long confirmTimeoutMs) {
+    this.rabbitTemplate = rabbitTemplate;
+    this.meterRegistry = meterRegistry;
+    this.retryDelaysMs = retryDelaysMs;
+    this.confirmTimeoutMs = confirmTimeoutMs;
+  }
+
+  public int attempts(Message message) {
+    Object count = message.getMessageProperties().getHeaders().get(RETRY_COUNT_HEADER);
+    return count instanceof Number number ? number.intValue() : 0;
+  }
+
+  public boolean retry(String queue, Message message, String reason) {
+    int attempt = attempts(message);
+    if (attempt >= retryDelaysMs.size()) {
+      log.error("Thông điệp trong hàng đợi {} thất bại sau {} lần thử lại: {}", queue, attempt, reason);
+      return deadLetter(queue, message, reason);
+    }
+
+    long delayMs = retryDelaysMs.get(attempt);
+    MessageProperties properties = message.getMessageProperties();
+    properties.setHeader(RETRY_COUNT_HEADER, attempt + 1);
+    properties.setHeader(ERROR_HEADER, reason);
+    properties.setExpiration(String.valueOf(delayMs - ThreadLocalRandom.current().nextLong(delayMs / 5 + 1)));
+
+    counter(queue, "retried").increment();
+    log.warn("Thử lại thông điệp của hàng đợi {} lần {} sau {} ms: {}", queue, attempt + 1, delayMs, reason);
+    return send(RabbitMQConfig.RETRY_EXCHANGE, RabbitMQConfig.retryQueueName(queue, delayMs), message);
+  }
+
+  public boolean defer(String queue, Message message, String reason) {
+    long delayMs = retryDelaysMs.get(0);
+    MessageProperties properties = message.getMessageProperties();
+    properties.setHeader(ERROR_HEADER, reason);
+    properties.setExpiration(String.valueOf(delayMs - ThreadLocalRandom.current().nextLong(delayMs / 5 + 1)));
+
+    counter(queue, "deferred").increment();
+    return send(RabbitMQConfig.RETRY_EXCHANGE, RabbitMQConfig.retryQueueName(queue, delayMs), message);
+  }
+
+  public boolean deadLetter(String queue, Message message, String reason) {
+    MessageProperties properties = message.getMessageProperties();
+    properties.setHeader(ERROR_HEADER, reason);
+    properties.setExpiration(null);
+
+    counter(queue, "dead_lettered").increment();
+    return send(RabbitMQConfig.DEAD_LETTER_EXCHANGE, queue, message);
+  }
+
+  public int replay(String queue, int limit) {
+    String deadLetterQueue = RabbitMQConfig.deadLetterQueueName(queue);
+    int replayed = 0;
+    while (replayed < limit && Boolean.TRUE.equals(rabbitTemplate.execute(channel -> {
+      GetResponse response = channel.basicGet(deadLetterQueue, false);
+      if (response == null) {
+        return false;
+      }
+
+      long deliveryTag = response.getEnvelope().getDeliveryTag();
+      MessageProperties properties = messagePropertiesConverter.toMessageProperties(response.getProps(),
+          response.getEnvelope(), "UTF-8");
+      properties.getHeaders().remove(RETRY_COUNT_HEADER);
+      properties.getHeaders().remove(ERROR_HEADER);
+      if (!send(RabbitMQConfig.EXCHANGE, queue, new Message(response.getBody(), properties))) {
+        channel.basicNack(deliveryTag, false, true);
+        return false;
+      }
+      channel.basicAck(deliveryTag, false);
+      return true;
+    }))) {
+      replayed++;
+    }
+
+    counter(queue, "replayed").increment(replayed);
+    log.info("Đã đưa lại {} thông điệp từ {} về hàng đợi {}", replayed, deadLetterQueue, queue);
+    return replayed;
+  }
+
+  private boolean send(String exchange, String routingKey, Message message) {
+    message.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+    CorrelationData correlationData = new CorrelationData(UUID.randomUUID().toString());
+    try {
+      rabbitTemplate.send(exchange, routingKey, message, correlationData);
+      CorrelationData.Confirm confirm = correlationData.getFuture().get(confirmTimeoutMs, TimeUnit.MILLISECONDS);
+      if (!confirm.isAck()) {
+        log.warn("RabbitMQ từ chối thông điệp gửi tới {}: {}", routingKey, confirm.getReason());
+      }
+      return confirm.isAck();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } catch (AmqpException | ExecutionException | TimeoutException e) {
+      log.warn("Không gửi được thông điệp tới {}: {}", routingKey, e.getMessage());
+      return false;
+    }
+  }
+
+  private Counter counter(String queue, String result) {
+    return Counter.builder("image.queue.messages").tag("queue", queue).tag("result", result)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,102 @@
+package com.service.post.mq;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntSupplier;
+
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+public class ImageUploadCircuitBreaker {
+  public enum State {
+    CLOSED, OPEN, HALF_OPEN
+  }
+
+  private static final long DRAIN_POLL_MS = 200;
+
+  private final RabbitListenerEndpointRegistry listenerRegistry;
+  private final ScheduledExecutorService imageUploadRetryScheduler;
+  private final int failureThreshold;
+  private final long openMs;
+
+  private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+  private final AtomicInteger consecutiveFailures = new AtomicInteger();
+  private volatile IntSupplier inFlight = () -> 0;
+
+  public ImageUploadCircuitBreaker(RabbitListenerEndpointRegistry listenerRegistry,
+      ScheduledExecutorService imageUploadRetryScheduler, MeterRegistry meterRegistry,
+      @Value("${spring.imagekit.upload.breaker.failure-threshold:5}") int failureThreshold,
+      @Value("${spring.imagekit.upload.breaker.open-ms:30000}") long openMs) {
+    this.listenerRegistry = listenerRegistry;
+    this.imageUploadRetryScheduler = imageUploadRetryScheduler;
+    this.failureThreshold = failureThreshold;
+    this.openMs = openMs;
+
+    Gauge.builder("imagekit.upload.circuit.state", state, s -> s.get().ordinal()).register(meterRegistry);
+  }
+
+  public void trackInFlight(IntSupplier inFlight) {
+    this.inFlight = inFlight;
+  }
+
+  public boolean isOpen() {
+    return state.get() == State.OPEN;
+  }
+
+  public void recordSuccess() {
+    consecutiveFailures.set(0);
+    if (state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+      log.info("ImageKit đã hoạt động trở lại, đóng circuit breaker tải ảnh");
+    }
+  }
+
+  public void recordFailure() {
+    int failures = consecutiveFailures.incrementAndGet();
+    if (state.compareAndSet(State.HALF_OPEN, State.OPEN)
+        || (failures >= failureThreshold && state.compareAndSet(State.CLOSED, State.OPEN))) {
+      log.warn("ImageKit lỗi liên tiếp {} lần, tạm dừng nhận ảnh trong {} ms", failures, openMs);
+      imageUploadRetryScheduler.execute(this::pauseConsumer);
+      imageUploadRetryScheduler.schedule(this::halfOpen, openMs, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void halfOpen() {
+    if (state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+      consecutiveFailures.set(0);
+      log.info("Thử tải ảnh lại lên ImageKit sau {} ms tạm dừng", openMs);
+      MessageListenerContainer container = uploadContainer();
+      if (container != null) {
+        container.start();
+      }
+    }
+  }
+
+  private void pauseConsumer() {
+    MessageListenerContainer container = uploadContainer();
+    if (state.get() != State.OPEN || container == null || !container.isRunning()) {
+      return;
+    }
+
+    int pending = inFlight.getAsInt();
+    if (pending > 0) {
+      log.debug("Chờ {} ảnh đang xử lý hoàn tất trước khi dừng nhận ảnh", pending);
+      imageUploadRetryScheduler.schedule(this::pauseConsumer, DRAIN_POLL_MS, TimeUnit.MILLISECONDS);
+      return;
+    }
+    container.stop(() -> log.info("Đã dừng nhận ảnh tải lên trong lúc circuit breaker mở"));
+  }
+
+  private MessageListenerContainer uploadContainer() {
+    return listenerRegistry.getListenerContainer(Consumer.UPLOAD_LISTENER_ID);
+  }
+}
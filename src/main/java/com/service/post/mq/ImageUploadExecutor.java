@@ -0,0 +1,313 @@
+package com.service.post.mq;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.rabbitmq.client.Channel;
+import com.service.post.config.RabbitMQConfig;
+import com.service.post.dto.Base64UploadDto;
+import com.service.post.imagekit.ImageKitException;
+import com.service.post.imagekit.ImageKitService;
+import com.service.post.imagekit.ImagePreprocessor;
+
+import io.imagekit.sdk.models.results.Result;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+public class ImageUploadExecutor {
+  public static final String UPLOADED_FILE_ID_HEADER = "x-uploaded-file-id";
+  public static final String UPLOADED_URL_HEADER = "x-uploaded-url";
+  public static final String UPLOADED_THUMBNAIL_FILE_ID_HEADER = "x-uploaded-thumbnail-file-id";
+  public static final String UPLOADED_THUMBNAIL_URL_HEADER = "x-uploaded-thumbnail-url";
+
+  private final ImageKitService imageKitService;
+  private final ImagePreprocessor imagePreprocessor;
+  private final ImagePatchBuffer imagePatchBuffer;
+  private final ImageUploadCircuitBreaker circuitBreaker;
+  private final ImageRetryRouter imageRetryRouter;
+  private final ImagePipelineMetrics imagePipelineMetrics;
+  private final Jackson2JsonMessageConverter jsonMessageConverter;
+  private final ExecutorService imageProcessingExecutor;
+  private final ExecutorService imageUploadExecutor;
+  private final ScheduledExecutorService imageUploadRetryScheduler;
+  private final long initialBackoffMs;
+  private final long maxBackoffMs;
+  private final double retryBudgetRatio;
+  private final double retryBudgetMaxTokens;
+
+  private final Semaphore permits;
+  private final AtomicLong rateLimitedUntil = new AtomicLong();
+  private final Counter retries;
+  private final Counter rateLimited;
+  private final Counter budgetExhausted;
+  private double retryTokens;
+
+  public ImageUploadExecutor(ImageKitService imageKitService, ImagePreprocessor imagePreprocessor,
+      ImagePatchBuffer imagePatchBuffer, ImageUploadCircuitBreaker circuitBreaker, ImageRetryRouter imageRetryRouter,
+      ImagePipelineMetrics imagePipelineMetrics, Jackson2JsonMessageConverter jsonMessageConverter,
+      ExecutorService imageProcessingExecutor, ExecutorService imageUploadExecutor,
+      ScheduledExecutorService imageUploadRetryScheduler, MeterRegistry meterRegistry,
+      @Value("${spring.imagekit.upload.max-in-flight:64}") int maxInFlight,
+      @Value("${spring.imagekit.upload.initial-backoff-ms:1000}") long initialBackoffMs,
+      @Value("${spring.imagekit.upload.max-backoff-ms:30000}") long maxBackoffMs,
+      @Value("${spring.imagekit.upload.retry-budget.ratio:0.2}") double retryBudgetRatio,
+      @Value("${spring.imagekit.upload.retry-budget.max-tokens:20}") double retryBudgetMaxTokens) {
+    this.imageKitService = imageKitService;
+    this.imagePreprocessor = imagePreprocessor;
+    this.imagePatchBuffer = imagePatchBuffer;
+    this.circuitBreaker = circuitBreaker;
+    this.imageRetryRouter = imageRetryRouter;
+    this.imagePipelineMetrics = imagePipelineMetrics;
+    this.jsonMessageConverter = jsonMessageConverter;
+    this.imageProcessingExecutor = imageProcessingExecutor;
+    this.imageUploadExecutor = imageUploadExecutor;
+    this.imageUploadRetryScheduler = imageUploadRetryScheduler;
+    this.initialBackoffMs = initialBackoffMs;
+    this.maxBackoffMs = maxBackoffMs;
+    this.retryBudgetRatio = retryBudgetRatio;
+    this.retryBudgetMaxTokens = retryBudgetMaxTokens;
+    this.permits = new Semaphore(maxInFlight);
+    this.retryTokens = retryBudgetMaxTokens;
+    circuitBreaker.trackInFlight(() -> maxInFlight - permits.availablePermits());
+
+    Gauge.builder("imagekit.upload.in-flight", permits, p -> maxInFlight - p.availablePermits())
+        .register(meterRegistry);
+    this.retries = Counter.builder("imagekit.upload.retries").register(meterRegistry);
+    this.rateLimited = Counter.builder("imagekit.upload.rate-limited").register(meterRegistry);
+    this.budgetExhausted = Counter.builder("imagekit.upload.retry-budget.exhausted").register(meterRegistry);
+  }
+
+  private static class UploadTask {
+    private final Message amqpMessage;
+    private final Channel channel;
+    private final long deliveryTag;
+    private Base64UploadDto message;
+    private int attempt;
+    private String fileId;
+    private String url;
+    private String thumbnailFileId;
+    private String thumbnailUrl;
+    private ImagePreprocessor.PreparedUpload prepared;
+
+    UploadTask(Message amqpMessage, Channel channel) {
+      this.amqpMessage = amqpMessage;
+      this.channel = channel;
+      this.deliveryTag = amqpMessage.getMessageProperties().getDeliveryTag();
+    }
+  }
+
+  public void submit(Message amqpMessage, Channel channel) {
+    UploadTask task = new UploadTask(amqpMessage, channel);
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      nack(task, true);
+      return;
+    }
+
+    try {
+      task.message = (Base64UploadDto) jsonMessageConverter.fromMessage(amqpMessage);
+    } catch (RuntimeException e) {
+      log.error("Không đọc được thông điệp tải ảnh: {}", e.getMessage());
+      settle(task, imageRetryRouter.deadLetter(RabbitMQConfig.UPLOAD_QUEUE_NAME, amqpMessage, e.getMessage()));
+      return;
+    }
+
+    MessageProperties properties = amqpMessage.getMessageProperties();
+    task.attempt = imageRetryRouter.attempts(amqpMessage);
+    task.fileId = properties.getHeader(UPLOADED_FILE_ID_HEADER);
+    task.url = properties.getHeader(UPLOADED_URL_HEADER);
+    task.thumbnailFileId = properties.getHeader(UPLOADED_THUMBNAIL_FILE_ID_HEADER);
+    task.thumbnailUrl = properties.getHeader(UPLOADED_THUMBNAIL_URL_HEADER);
+    if (task.attempt == 0) {
+      imagePipelineMetrics.received(task.message.getRequestedAt());
+      depositRetryToken();
+    }
+    dispatch(task);
+  }
+
+  private void dispatch(UploadTask task) {
+    if (circuitBreaker.isOpen()) {
+      settle(task, imageRetryRouter.defer(RabbitMQConfig.UPLOAD_QUEUE_NAME, task.amqpMessage,
+          "circuit breaker ImageKit đang mở"));
+      return;
+    }
+
+    long waitMs = rateLimitedUntil.get() - System.currentTimeMillis();
+    if (waitMs > 0) {
+      schedule(task, waitMs);
+      return;
+    }
+
+    try {
+      if (task.fileId == null && task.prepared == null) {
+        imageProcessingExecutor.execute(() -> prepare(task));
+      } else {
+        imageUploadExecutor.execute(() -> run(task));
+      }
+    } catch (RejectedExecutionException e) {
+      nack(task, true);
+    }
+  }
+
+  private void prepare(UploadTask task) {
+    try {
+      task.prepared = imagePreprocessor.prepare(task.message);
+    } finally {
+      if (task.prepared == null) {
+        log.warn("Xử lý ảnh {} bị gián đoạn, tải lên ảnh gốc", task.message.getImageId());
+        task.prepared = new ImagePreprocessor.PreparedUpload(task.message, null);
+      }
+      dispatch(task);
+    }
+  }
+
+  private void run(UploadTask task) {
+    if (task.fileId == null) {
+      try {
+        Result result = imageKitService.uploadFromBase64(task.prepared.getImage());
+        circuitBreaker.recordSuccess();
+        task.fileId = result.getFileId();
+        task.url = result.getUrl();
+        log.info("Tải lên hình ảnh thành công: {}", task.url);
+      } catch (ImageKitException e) {
+        onUploadFailure(task, e);
+        return;
+      } catch (RuntimeException e) {
+        onUploadFailure(task, new ImageKitException(e.getMessage(), true, false, -1));
+        return;
+      }
+      uploadThumbnail(task);
+    }
+
+    imagePatchBuffer.add(task.message, task.fileId, task.url, task.thumbnailFileId, task.thumbnailUrl)
+        .whenComplete((ignored, e) -> {
+          if (e == null) {
+            log.info("Cập nhật hình ảnh {} có fileId: {} và url: {} thành công", task.message.getImageId(),
+                task.fileId, task.url);
+            settle(task, true);
+          } else {
+            MessageProperties properties = task.amqpMessage.getMessageProperties();
+            properties.setHeader(UPLOADED_FILE_ID_HEADER, task.fileId);
+            properties.setHeader(UPLOADED_URL_HEADER, task.url);
+            if (task.thumbnailFileId != null) {
+              properties.setHeader(UPLOADED_THUMBNAIL_FILE_ID_HEADER, task.thumbnailFileId);
+              properties.setHeader(UPLOADED_THUMBNAIL_URL_HEADER, task.thumbnailUrl);
+            }
+            retry(task, e.getMessage());
+          }
+        });
+  }
+
+  private void uploadThumbnail(UploadTask task) {
+    if (task.prepared.getThumbnail() == null) {
+      return;
+    }
+    try {
+      Result result = imageKitService.uploadFromBase64(task.prepared.getThumbnail());
+      task.thumbnailFileId = result.getFileId();
+      task.thumbnailUrl = result.getUrl();
+    } catch (RuntimeException e) {
+      log.warn("Tải ảnh thu nhỏ của ảnh {} thất bại, dùng ảnh gốc: {}", task.message.getImageId(), e.getMessage());
+    }
+  }
+
+  private void onUploadFailure(UploadTask task, ImageKitException e) {
+    if (!e.isRetryable()) {
+      circuitBreaker.recordSuccess();
+      log.error("Tải ảnh {} lên ImageKit thất bại, không thử lại: {}", task.message.getImageId(), e.getMessage());
+      settle(task, imageRetryRouter.deadLetter(RabbitMQConfig.UPLOAD_QUEUE_NAME, task.amqpMessage, e.getMessage()));
+      return;
+    }
+
+    if (e.isRateLimited()) {
+      circuitBreaker.recordSuccess();
+      rateLimited.increment();
+      long waitMs = e.getRetryAfterMs() > 0 ? e.getRetryAfterMs() : backoff(task.attempt + 1);
+      rateLimitedUntil.accumulateAndGet(System.currentTimeMillis() + waitMs, Math::max);
+      log.warn("ImageKit giới hạn tần suất, tạm hoãn tải ảnh trong {} ms", waitMs);
+      schedule(task, waitMs);
+      return;
+    }
+
+    circuitBreaker.recordFailure();
+    retry(task, e.getMessage());
+  }
+
+  private void retry(UploadTask task, String reason) {
+    if (!withdrawRetryToken()) {
+      budgetExhausted.increment();
+      log.error("Hết ngân sách thử lại, chuyển ảnh {} vào hàng đợi lỗi: {}", task.message.getImageId(), reason);
+      settle(task, imageRetryRouter.deadLetter(RabbitMQConfig.UPLOAD_QUEUE_NAME, task.amqpMessage, reason));
+      return;
+    }
+
+    retries.increment();
+    settle(task, imageRetryRouter.retry(RabbitMQConfig.UPLOAD_QUEUE_NAME, task.amqpMessage, reason));
+  }
+
+  private void schedule(UploadTask task, long delayMs) {
+    try {
+      imageUploadRetryScheduler.schedule(() -> dispatch(task), delayMs, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      nack(task, true);
+    }
+  }
+
+  private long backoff(int attempt) {
+    long ceiling = initialBackoffMs << Math.min(Math.max(attempt - 1, 0), 20);
+    return ThreadLocalRandom.current().nextLong(Math.min(ceiling, maxBackoffMs) + 1);
+  }
+
+  private synchronized void depositRetryToken() {
+    retryTokens = Math.min(retryTokens + retryBudgetRatio, retryBudgetMaxTokens);
+  }
+
+  private synchronized boolean withdrawRetryToken() {
+    if (retryTokens < 1) {
+      return false;
+    }
+    retryTokens--;
+    return true;
+  }
+
+  private void settle(UploadTask task, boolean forwarded) {
+    permits.release();
+    try {
+      if (forwarded) {
+        task.channel.basicAck(task.deliveryTag, false);
+      } else {
+        task.channel.basicNack(task.deliveryTag, false, true);
+      }
+    } catch (IOException | RuntimeException e) {
+      log.warn("Không xác nhận được tin nhắn ảnh {}, tin nhắn sẽ được giao lại: {}", task.deliveryTag,
+          e.getMessage());
+    }
+  }
+
+  private void nack(UploadTask task, boolean requeue) {
+    permits.release();
+    try {
+      task.channel.basicNack(task.deliveryTag, false, requeue);
+    } catch (IOException | RuntimeException e) {
+      log.warn("Không trả lại được tin nhắn ảnh {}: {}", task.deliveryTag, e.getMessage());
+    }
+  }
+}
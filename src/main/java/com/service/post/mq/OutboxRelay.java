@@ -0,0 +1,173 @@
+package com.service.post.mq;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.post.entity.OutboxMessageEntity;
+import com.service.post.repository.OutboxMessageRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+public class OutboxRelay {
+  private static final long OUTBOX_LOCK_KEY = 0x706f73746f7574L;
+
+  private final OutboxMessageRepository outboxMessageRepository;
+  private final RabbitTemplate rabbitTemplate;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate transactionTemplate;
+  private final int batchSize;
+  private final long batchBytes;
+  private final long confirmTimeoutMs;
+
+  private final AtomicLong lagMillis = new AtomicLong();
+  private final Counter published;
+  private final Counter unconfirmed;
+  private final Counter dropped;
+
+  public OutboxRelay(OutboxMessageRepository outboxMessageRepository, RabbitTemplate rabbitTemplate,
+      ObjectMapper objectMapper, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+      @Value("${spring.rabbitmq.outbox.batch-size:100}") int batchSize,
+      @Value("${spring.rabbitmq.outbox.batch-bytes:8388608}") long batchBytes,
+      @Value("${spring.rabbitmq.outbox.confirm-timeout-ms:5000}") long confirmTimeoutMs) {
+    this.outboxMessageRepository = outboxMessageRepository;
+    this.rabbitTemplate = rabbitTemplate;
+    this.objectMapper = objectMapper;
+    this.transactionTemplate = transactionTemplate;
+    this.batchSize = batchSize;
+    this.batchBytes = batchBytes;
+    this.confirmTimeoutMs = confirmTimeoutMs;
+
+    Gauge.builder("outbox.relay.lag", lagMillis, lag -> lag.get() / 1000.0).baseUnit("seconds")
+        .register(meterRegistry);
+    this.published = Counter.builder("outbox.relay.messages").tag("result", "published").register(meterRegistry);
+    this.unconfirmed = Counter.builder("outbox.relay.messages").tag("result", "unconfirmed")
+        .register(meterRegistry);
+    this.dropped = Counter.builder("outbox.relay.messages").tag("result", "dropped").register(meterRegistry);
+  }
+
+  @Scheduled(fixedDelayString = "${spring.rabbitmq.outbox.poll-interval-ms:200}")
+  public void relay() {
+    Boolean more;
+    do {
+      more = transactionTemplate.execute(status -> relayBatch());
+    } while (Boolean.TRUE.equals(more));
+  }
+
+  private boolean relayBatch() {
+    if (!outboxMessageRepository.tryAdvisoryXactLock(OUTBOX_LOCK_KEY)) {
+      return false;
+    }
+
+    List<OutboxMessageRepository.OutboxSlot> slots = outboxMessageRepository.findCommittedSlots(batchSize);
+    if (slots.isEmpty()) {
+      lagMillis.set(0);
+      return false;
+    }
+
+    Map<Long, Integer> positions = new HashMap<>();
+    long bytes = 0;
+    for (OutboxMessageRepository.OutboxSlot slot : slots) {
+      if (!positions.isEmpty() && bytes + slot.getPayloadBytes() > batchBytes) {
+        break;
+      }
+      bytes += slot.getPayloadBytes();
+      positions.put(slot.getId(), positions.size());
+    }
+    boolean truncated = positions.size() < slots.size() || slots.size() == batchSize;
+
+    List<OutboxMessageEntity> messages = new ArrayList<>(outboxMessageRepository.findAllById(positions.keySet()));
+    messages.sort(Comparator.comparing(message -> positions.get(message.getId())));
+    if (messages.isEmpty()) {
+      return false;
+    }
+    lagMillis.set(Math.max(Duration.between(messages.get(0).getCreatedAt(), LocalDateTime.now()).toMillis(), 0));
+
+    List<Long> done = new ArrayList<>();
+    List<CorrelationData> confirms = new ArrayList<>();
+    for (OutboxMessageEntity message : messages) {
+      Object payload = deserialize(message);
+      CorrelationData correlationData = new CorrelationData(String.valueOf(message.getId()));
+      if (payload != null) {
+        try {
+          rabbitTemplate.convertAndSend(message.getExchange(), message.getRoutingKey(), payload, correlationData);
+        } catch (AmqpException e) {
+          log.warn("Gửi thông điệp outbox {} thất bại: {}", message.getId(), e.getMessage());
+          break;
+        }
+      }
+      confirms.add(payload != null ? correlationData : null);
+    }
+
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMs);
+    for (int i = 0; i < confirms.size(); i++) {
+      CorrelationData correlationData = confirms.get(i);
+      if (correlationData != null) {
+        if (!isAcked(correlationData, deadline)) {
+          break;
+        }
+        published.increment();
+      }
+      done.add(messages.get(i).getId());
+    }
+
+    outboxMessageRepository.deleteAllByIdInBatch(done);
+    if (done.size() < messages.size()) {
+      unconfirmed.increment(messages.size() - done.size());
+      log.warn("Chỉ {}/{} thông điệp outbox được RabbitMQ xác nhận, sẽ gửi lại", done.size(), messages.size());
+      return false;
+    }
+    return truncated;
+  }
+
+  private boolean isAcked(CorrelationData correlationData, long deadline) {
+    try {
+      long remaining = Math.max(deadline - System.nanoTime(), 0);
+      CorrelationData.Confirm confirm = correlationData.getFuture().get(remaining, TimeUnit.NANOSECONDS);
+      if (!confirm.isAck()) {
+        log.warn("RabbitMQ từ chối thông điệp outbox {}: {}", correlationData.getId(), confirm.getReason());
+      }
+      return confirm.isAck();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } catch (ExecutionException | TimeoutException e) {
+      log.warn("Không nhận được xác nhận cho thông điệp outbox {}", correlationData.getId());
+      return false;
+    }
+  }
+
+  private Object deserialize(OutboxMessageEntity message) {
+    try {
+      return objectMapper.readValue(message.getPayload(), Class.forName(message.getPayloadType()));
+    } catch (JsonProcessingException | ClassNotFoundException e) {
+      log.error("Bỏ thông điệp outbox {} không đọc được ({}): {}", message.getId(), message.getPayloadType(),
+          e.getMessage());
+      dropped.increment();
+      return null;
+    }
+  }
+}
@@ -1,28 +1,62 @@
 package com.service.post.mq;
 
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.service.post.config.RabbitMQConfig;
 import com.service.post.dto.Base64UploadDto;
 import com.service.post.dto.ImageUploadedDto;
+import com.service.post.entity.OutboxMessageEntity;
+import com.service.post.repository.OutboxMessageRepository;
 
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class Publisher {
-  private final RabbitTemplate rabbitTemplate;
+  private final OutboxMessageRepository outboxMessageRepository;
+  private final ObjectMapper objectMapper;
 
   public void sendUploadImage(Base64UploadDto message) {
-    rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE, RabbitMQConfig.UPLOAD_ROUTING_KEY, message);
+    enqueue(RabbitMQConfig.UPLOAD_ROUTING_KEY, message);
+  }
+
+  public void sendUploadImages(List<Base64UploadDto> messages) {
+    outboxMessageRepository.saveAll(messages.stream()
+        .map(message -> toOutboxMessage(RabbitMQConfig.UPLOAD_ROUTING_KEY, message)).toList());
   }
 
   public void sendDeleteImage(String fileId) {
-    rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE, RabbitMQConfig.DELETE_ROUTING_KEY, fileId);
+    enqueue(RabbitMQConfig.DELETE_ROUTING_KEY, fileId);
+  }
+
+  public void sendDeleteImages(Collection<String> fileIds) {
+    outboxMessageRepository.saveAll(fileIds.stream()
+        .map(fileId -> toOutboxMessage(RabbitMQConfig.DELETE_ROUTING_KEY, fileId)).toList());
   }
 
   public void sendUploadedAllImages(ImageUploadedDto message) {
-    rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE, RabbitMQConfig.UPLOADED_QUEUE_NAME, message);
+    enqueue(RabbitMQConfig.UPLOADED_QUEUE_NAME, message);
+  }
+
+  private void enqueue(String routingKey, Object message) {
+    outboxMessageRepository.save(toOutboxMessage(routingKey, message));
+  }
+
+  private OutboxMessageEntity toOutboxMessage(String routingKey, Object message) {
+    String payload;
+    try {
+      payload = objectMapper.writeValueAsString(message);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Không thể tuần tự hóa thông điệp " + routingKey, e);
+    }
+
+    return OutboxMessageEntity.builder().exchange(RabbitMQConfig.EXCHANGE).routingKey(routingKey)
+        .payloadType(message.getClass().getName()).payload(payload).createdAt(LocalDateTime.now()).build();
   }
 }
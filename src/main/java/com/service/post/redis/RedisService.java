@@ -1,5 +1,8 @@
 package com.service.post.redis;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 public interface RedisService {
@@ -9,9 +12,27 @@ public interface RedisService {
 
   String getString(String key);
 
+  List<String> getStrings(List<String> keys);
+
+  void saveStrings(Map<String, String> entries, long timeout, TimeUnit unit);
+
   void updateString(String key, String content);
 
+  int increment(String key);
+
+  int increment(String key, long timeout, TimeUnit unit);
+
+  void expire(String key, long timeout, TimeUnit unit);
+
   int decrement(String key);
 
   void deleteString(String key);
+
+  void addHashFields(Map<String, Collection<String>> fieldsByKey, long timeout, TimeUnit unit);
+
+  int removeHashFields(String key, Collection<String> fields);
+
+  int hashSize(String key);
+
+  void publish(String channel, String message);
 }
@@ -1,12 +1,24 @@
 package com.service.post.redis;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import com.service.post.common.MetricsUtil;
 import com.service.post.exceptions.ResourceNotFoundException;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -14,8 +26,34 @@ import lombok.RequiredArgsConstructor;
 public class RedisServiceImpl implements RedisService {
   private final StringRedisTemplate stringRedisTemplate;
   private final StringRedisTemplate redisTemplate;
+  private final MeterRegistry meterRegistry;
   private static final String serviceName = "post-service";
 
+  private static final String ADD_FIELDS_SCRIPT = """
+      for i = 2, #ARGV do
+        redis.call('HSET', KEYS[1], ARGV[i], '1')
+      end
+      redis.call('EXPIRE', KEYS[1], ARGV[1])
+      return redis.call('HLEN', KEYS[1])
+      """;
+
+  private static final RedisScript<Long> REMOVE_FIELDS_SCRIPT = RedisScript.of("""
+      local removed = 0
+      for i = 1, #ARGV do
+        removed = removed + redis.call('HDEL', KEYS[1], ARGV[i])
+      end
+      if removed == 0 then
+        return -1
+      end
+      return redis.call('HLEN', KEYS[1])
+      """, Long.class);
+
+  private static final RedisScript<Long> INCREMENT_SCRIPT = RedisScript.of("""
+      local value = redis.call('INCR', KEYS[1])
+      redis.call('EXPIRE', KEYS[1], ARGV[1])
+      return value
+      """, Long.class);
+
   @Override
   public String setKey(String originKey, String keyType) {
     return new StringBuilder().append(serviceName).append(keyType).append(originKey).toString();
@@ -23,40 +61,112 @@ public class RedisServiceImpl implements RedisService {
 
   @Override
   public void saveString(String key, String content, long timeout, TimeUnit unit) {
-    stringRedisTemplate.opsForValue().set(key, content, timeout, unit);
+    timed("set", () -> stringRedisTemplate.opsForValue().set(key, content, timeout, unit));
   }
 
   @Override
   public String getString(String key) {
-    if (!checkKeyExists(key, true)) {
+    String value = timed("get", () -> stringRedisTemplate.opsForValue().get(key));
+    if (value == null) {
       throw new ResourceNotFoundException("Không tìm thấy dữ liệu trong bộ nhớ");
     }
-    return stringRedisTemplate.opsForValue().get(key);
+    return value;
+  }
+
+  @Override
+  public List<String> getStrings(List<String> keys) {
+    return timed("mget", () -> stringRedisTemplate.opsForValue().multiGet(keys));
+  }
+
+  @Override
+  public void saveStrings(Map<String, String> entries, long timeout, TimeUnit unit) {
+    long seconds = unit.toSeconds(timeout);
+    timed("pipelined_setex", () -> stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+      entries.forEach((key, content) -> connection.stringCommands().setEx(key.getBytes(StandardCharsets.UTF_8),
+          seconds, content.getBytes(StandardCharsets.UTF_8)));
+      return null;
+    }));
   }
 
   @Override
   public void updateString(String key, String content) {
-    if (!checkKeyExists(key, true)) {
+    Boolean updated = timed("set_xx", () -> stringRedisTemplate.opsForValue().setIfPresent(key, content));
+    if (!Boolean.TRUE.equals(updated)) {
       throw new ResourceNotFoundException("Không tìm thấy dữ liệu trong bộ nhớ");
     }
-    stringRedisTemplate.opsForValue().set(key, content);
+  }
+
+  @Override
+  public int increment(String key) {
+    Long newVal = timed("incr", () -> redisTemplate.opsForValue().increment(key));
+    return newVal != null ? newVal.intValue() : 0;
+  }
+
+  @Override
+  public int increment(String key, long timeout, TimeUnit unit) {
+    Long newVal = timed("incr_expire", () -> stringRedisTemplate.execute(INCREMENT_SCRIPT, List.of(key),
+        String.valueOf(unit.toSeconds(timeout))));
+    return newVal != null ? newVal.intValue() : 0;
+  }
+
+  @Override
+  public void expire(String key, long timeout, TimeUnit unit) {
+    timed("expire", () -> stringRedisTemplate.expire(key, timeout, unit));
   }
 
   @Override
   public int decrement(String key) {
-    Long newVal = redisTemplate.opsForValue().decrement(key);
+    Long newVal = timed("decr", () -> redisTemplate.opsForValue().decrement(key));
     return newVal != null ? newVal.intValue() : 0;
   }
 
   @Override
   public void deleteString(String key) {
-    if (!checkKeyExists(key, true)) {
+    Boolean deleted = timed("del", () -> stringRedisTemplate.delete(key));
+    if (!Boolean.TRUE.equals(deleted)) {
       throw new ResourceNotFoundException("Không tìm thấy dữ liệu trong bộ nhớ");
     }
-    stringRedisTemplate.delete(key);
   }
 
-  private boolean checkKeyExists(String key, boolean isString) {
-    return stringRedisTemplate.hasKey(key);
+  @Override
+  public void addHashFields(Map<String, Collection<String>> fieldsByKey, long timeout, TimeUnit unit) {
+    byte[] script = ADD_FIELDS_SCRIPT.getBytes(StandardCharsets.UTF_8);
+    byte[] seconds = String.valueOf(unit.toSeconds(timeout)).getBytes(StandardCharsets.UTF_8);
+    timed("add_hash_fields", () -> stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+      fieldsByKey.forEach((key, fields) -> {
+        List<byte[]> keysAndArgs = new ArrayList<>();
+        keysAndArgs.add(key.getBytes(StandardCharsets.UTF_8));
+        keysAndArgs.add(seconds);
+        fields.forEach(field -> keysAndArgs.add(field.getBytes(StandardCharsets.UTF_8)));
+        connection.scriptingCommands().eval(script, ReturnType.INTEGER, 1, keysAndArgs.toArray(byte[][]::new));
+      });
+      return null;
+    }));
+  }
+
+  @Override
+  public int removeHashFields(String key, Collection<String> fields) {
+    Long remaining = timed("remove_hash_fields",
+        () -> stringRedisTemplate.execute(REMOVE_FIELDS_SCRIPT, List.of(key), fields.toArray()));
+    return remaining != null ? remaining.intValue() : -1;
+  }
+
+  @Override
+  public int hashSize(String key) {
+    Long size = timed("hlen", () -> stringRedisTemplate.opsForHash().size(key));
+    return size != null ? size.intValue() : 0;
+  }
+
+  @Override
+  public void publish(String channel, String message) {
+    timed("publish", () -> stringRedisTemplate.convertAndSend(channel, message));
+  }
+
+  private <T> T timed(String operation, Supplier<T> call) {
+    return MetricsUtil.timed(meterRegistry, Timer.builder("redis.operations").tag("operation", operation), call);
+  }
+
+  private void timed(String operation, Runnable call) {
+    MetricsUtil.timed(meterRegistry, Timer.builder("redis.operations").tag("operation", operation), call);
   }
 }
@@ -1,11 +1,36 @@
 package com.service.post.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.service.post.entity.ImageEntity;
 
 public interface ImageRepository extends JpaRepository<ImageEntity, String> {
   List<ImageEntity> findByPostIdOrderBySortOrderAsc(String postId);
+
+  List<ImageEntity> findByPostIdIn(Collection<String> postIds);
+
+  Optional<ImageEntity> findFirstByContentHashAndFileIdIsNotNull(String contentHash);
+
+  List<ImageEntity> findByContentHashInAndFileIdIsNotNull(Collection<String> contentHashes);
+
+  @Query("SELECT DISTINCT i.fileId FROM ImageEntity i WHERE i.fileId IN :fileIds")
+  List<String> findFileIdsIn(@Param("fileIds") Collection<String> fileIds);
+
+  @Query(value = "SELECT i.file_id FROM images i WHERE i.file_id IN (:fileIds) FOR SHARE", nativeQuery = true)
+  List<String> lockFileIds(@Param("fileIds") Collection<String> fileIds);
+
+  @Query("SELECT DISTINCT i.fileId FROM ImageEntity i WHERE i.fileId IN :fileIds AND i.id NOT IN :imageIds")
+  List<String> findFileIdsReferencedByOthers(@Param("fileIds") Collection<String> fileIds,
+      @Param("imageIds") Collection<String> imageIds);
+
+  @Query("SELECT DISTINCT i.thumbnailFileId FROM ImageEntity i "
+      + "WHERE i.thumbnailFileId IN :fileIds AND i.id NOT IN :imageIds")
+  List<String> findThumbnailFileIdsReferencedByOthers(@Param("fileIds") Collection<String> fileIds,
+      @Param("imageIds") Collection<String> imageIds);
 }
@@ -0,0 +1,25 @@
+package com.service.post.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.service.post.entity.OutboxMessageEntity;
+
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessageEntity, Long> {
+  interface OutboxSlot {
+    Long getId();
+
+    long getPayloadBytes();
+  }
+
+  @Query(value = "SELECT o.id AS id, octet_length(o.payload) AS payloadBytes FROM outbox_messages o "
+      + "WHERE o.tx_id < pg_snapshot_xmin(pg_current_snapshot())::text::bigint ORDER BY o.tx_id, o.id LIMIT :limit",
+      nativeQuery = true)
+  List<OutboxSlot> findCommittedSlots(@Param("limit") int limit);
+
+  @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+  boolean tryAdvisoryXactLock(@Param("key") long key);
+}
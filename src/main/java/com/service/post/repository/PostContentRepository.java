@@ -0,0 +1,18 @@
+package com.service.post.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.service.post.entity.PostContentEntity;
+
+import jakarta.persistence.LockModeType;
+
+public interface PostContentRepository extends JpaRepository<PostContentEntity, String> {
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT c FROM PostContentEntity c WHERE c.postId = :postId AND c.post.deletedPost = false")
+  Optional<PostContentEntity> findByPostIdForUpdate(@Param("postId") String postId);
+}
@@ -1,5 +1,7 @@
 package com.service.post.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,9 +18,19 @@ import com.service.post.entity.PostEntity;
 import jakarta.persistence.LockModeType;
 
 @Repository
-public interface PostRepository extends JpaRepository<PostEntity, String>, JpaSpecificationExecutor<PostEntity> {
+public interface PostRepository
+    extends JpaRepository<PostEntity, String>, JpaSpecificationExecutor<PostEntity>, PostRepositoryCustom {
   boolean existsBySlug(String slug);
 
+  @Query("SELECT p.slug FROM PostEntity p WHERE p.slug IN :slugs")
+  List<String> findExistingSlugs(@Param("slugs") Collection<String> slugs);
+
+  @Query("SELECT p.slug FROM PostEntity p")
+  List<String> findAllSlugs();
+
+  @Query("SELECT p.slug FROM PostEntity p WHERE p.updatedAt > :since")
+  List<String> findSlugsUpdatedAfter(@Param("since") LocalDateTime since);
+
   Optional<PostEntity> findByIdAndDeletedPostFalse(String id);
 
   Optional<PostEntity> findByIdAndDeletedPostTrue(String id);
@@ -32,7 +44,21 @@ public interface PostRepository extends JpaRepository<PostEntity, String>, JpaSp
   Optional<PostEntity> findByIdForUpdate(@Param("id") String id);
 
   @Modifying
-  @Query("UPDATE PostEntity p SET p.deletedPost = :isDeleted, p.updatedById = :updatedById WHERE p.id IN :ids")
+  @Query(value = "UPDATE posts p SET search_vector = "
+      + "setweight(to_tsvector('simple', coalesce(p.title, '')), 'A') || "
+      + "setweight(to_tsvector('simple', regexp_replace(coalesce(c.content, ''), '<[^>]*>', ' ', 'g')), 'B') "
+      + "FROM unnest(CAST(:ids AS text[]), CAST(:contents AS text[])) AS c(id, content) WHERE p.id = c.id",
+      nativeQuery = true)
+  void updateSearchVectors(@Param("ids") String[] ids, @Param("contents") String[] contents);
+
+  @Modifying
+  @Query("UPDATE PostEntity p SET p.deletedPost = :isDeleted, p.deletedAt = :deletedAt, "
+      + "p.updatedById = :updatedById WHERE p.id IN :ids")
   void updateIsDeletedAllById(@Param("ids") List<String> ids, @Param("isDeleted") boolean isDeleted,
-      @Param("updatedById") String updatedById);
+      @Param("deletedAt") LocalDateTime deletedAt, @Param("updatedById") String updatedById);
+
+  @Query(value = "SELECT p.id FROM posts p WHERE p.is_deleted AND coalesce(p.deleted_at, p.updated_at) < :cutoff "
+      + "AND p.id > :afterId ORDER BY p.id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+  List<String> lockPurgeCandidates(@Param("cutoff") LocalDateTime cutoff, @Param("afterId") String afterId,
+      @Param("limit") int limit);
 }
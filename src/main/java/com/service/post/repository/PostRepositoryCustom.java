@@ -0,0 +1,14 @@
+package com.service.post.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.service.post.dto.PostSummaryDto;
+import com.service.post.entity.PostEntity;
+
+public interface PostRepositoryCustom {
+  List<PostSummaryDto> findSummaries(Specification<PostEntity> spec, Sort sort, String rankBySearch, long offset,
+      int limit);
+}
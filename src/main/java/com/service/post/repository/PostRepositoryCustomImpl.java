@@ -0,0 +1,94 @@
+package com.service.post.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.service.post.config.SearchFunctionContributor;
+import com.service.post.dto.PostSummaryDto;
+import com.service.post.entity.ImageEntity;
+import com.service.post.entity.PostEntity;
+import com.service.post.entity.TopicEntity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class PostRepositoryCustomImpl implements PostRepositoryCustom {
+  private final EntityManager entityManager;
+
+  @Override
+  public List<PostSummaryDto> findSummaries(Specification<PostEntity> spec, Sort sort, String rankBySearch, long offset,
+      int limit) {
+    return entityManager.createQuery(buildSummaryQuery(spec, sort, rankBySearch)).setFirstResult((int) offset)
+        .setMaxResults(limit).getResultList();
+  }
+
+  private CriteriaQuery<PostSummaryDto> buildSummaryQuery(Specification<PostEntity> spec, Sort sort,
+      String rankBySearch) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<PostSummaryDto> query = cb.createQuery(PostSummaryDto.class);
+    Root<PostEntity> root = query.from(PostEntity.class);
+
+    Join<PostEntity, TopicEntity> topic = root.join("topic");
+    Join<PostEntity, ImageEntity> thumbnail = root.join("images", JoinType.LEFT);
+    thumbnail.on(cb.equal(thumbnail.get("id"), thumbnailId(query, cb, root)));
+
+    String sortField = sort.stream().findFirst().map(Sort.Order::getProperty).orElse("id");
+    query.select(cb.construct(PostSummaryDto.class, root.get("id"), root.get("title"), topic.get("id"),
+        topic.get("name"), topic.get("slug"), thumbnail.get("id"),
+        cb.coalesce(thumbnail.<String>get("thumbnailUrl"), thumbnail.<String>get("url")), root.get(sortField)));
+
+    Predicate predicate = spec.toPredicate(root, query, cb);
+    if (predicate != null) {
+      query.where(predicate);
+    }
+    List<Order> orders = new ArrayList<>(QueryUtils.toOrders(sort, root, cb));
+    if (rankBySearch != null) {
+      orders.add(0, cb.desc(cb.function(SearchFunctionContributor.RANK_FUNCTION, Double.class,
+          root.get("searchVector"), cb.literal(rankBySearch))));
+    }
+    query.orderBy(orders);
+
+    return query;
+  }
+
+  // ảnh được đánh dấu, nếu không có thì ảnh đầu tiên; trùng sortOrder thì lấy id nhỏ nhất
+  private Subquery<String> thumbnailId(CriteriaQuery<?> query, CriteriaBuilder cb, Root<PostEntity> root) {
+    Subquery<String> chosen = query.subquery(String.class);
+    Root<ImageEntity> image = chosen.from(ImageEntity.class);
+    return chosen.select(cb.least(image.<String>get("id"))).where(cb.equal(image.get("post"), root),
+        thumbnailCandidate(query, cb, root, image),
+        cb.equal(image.get("sortOrder"), firstSortOrder(query, cb, root)));
+  }
+
+  private Predicate thumbnailCandidate(CriteriaQuery<?> query, CriteriaBuilder cb, Root<PostEntity> root,
+      Root<ImageEntity> image) {
+    return cb.or(cb.isTrue(image.get("thumbnailImage")), cb.not(cb.exists(markedThumbnail(query, cb, root))));
+  }
+
+  private Subquery<String> markedThumbnail(CriteriaQuery<?> query, CriteriaBuilder cb, Root<PostEntity> root) {
+    Subquery<String> marked = query.subquery(String.class);
+    Root<ImageEntity> image = marked.from(ImageEntity.class);
+    return marked.select(image.get("id")).where(cb.equal(image.get("post"), root),
+        cb.isTrue(image.get("thumbnailImage")));
+  }
+
+  private Subquery<Integer> firstSortOrder(CriteriaQuery<?> query, CriteriaBuilder cb, Root<PostEntity> root) {
+    Subquery<Integer> first = query.subquery(Integer.class);
+    Root<ImageEntity> image = first.from(ImageEntity.class);
+    return first.select(cb.min(image.get("sortOrder"))).where(cb.equal(image.get("post"), root),
+        thumbnailCandidate(query, cb, root, image));
+  }
+}
@@ -1,5 +1,6 @@
 package com.service.post.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +16,12 @@ import com.service.post.entity.TopicEntity;
 public interface TopicRepository extends JpaRepository<TopicEntity, String> {
   boolean existsBySlug(String slug);
 
+  @Query("SELECT t.slug FROM TopicEntity t")
+  List<String> findAllSlugs();
+
+  @Query("SELECT t.slug FROM TopicEntity t WHERE t.updatedAt > :since")
+  List<String> findSlugsUpdatedAfter(@Param("since") LocalDateTime since);
+
   Optional<TopicEntity> findByIdAndDeletedTopicFalse(String id);
 
   Optional<TopicEntity> findByIdAndDeletedTopicTrue(String id);
@@ -28,6 +35,14 @@ public interface TopicRepository extends JpaRepository<TopicEntity, String> {
   List<TopicEntity> findAllByDeletedTopicIsTrue();
 
   @Modifying
-  @Query("UPDATE TopicEntity t SET t.deletedTopic = :isDeleted, t.updatedById = :updatedById WHERE t.id IN :ids")
-  void updateIsDeletedAllById(@Param("ids") List<String> ids, @Param("isDeleted") boolean isDeleted, @Param("updatedById") String updatedById);
+  @Query("UPDATE TopicEntity t SET t.deletedTopic = :isDeleted, t.deletedAt = :deletedAt, "
+      + "t.updatedById = :updatedById WHERE t.id IN :ids")
+  void updateIsDeletedAllById(@Param("ids") List<String> ids, @Param("isDeleted") boolean isDeleted,
+      @Param("deletedAt") LocalDateTime deletedAt, @Param("updatedById") String updatedById);
+
+  @Query(value = "SELECT t.id FROM topics t WHERE t.is_deleted AND coalesce(t.deleted_at, t.updated_at) < :cutoff "
+      + "AND t.id > :afterId AND NOT EXISTS (SELECT 1 FROM posts p WHERE p.topic_id = t.id) "
+      + "ORDER BY t.id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+  List<String> lockPurgeCandidates(@Param("cutoff") LocalDateTime cutoff, @Param("afterId") String afterId,
+      @Param("limit") int limit);
 }
@@ -0,0 +1,193 @@
+package com.service.post.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.service.post.redis.RedisService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+public class DeletedContentPurgeJob {
+  private static final String CHECKPOINT_KEY_TYPE = ":purge-checkpoint:";
+
+  private final PostService postService;
+  private final RedisService redisService;
+  private final DataSource dataSource;
+  private final MeterRegistry meterRegistry;
+  private final boolean enabled;
+  private final long retentionDays;
+  private final int chunkSize;
+  private final long chunkPauseMs;
+  private final double maxPoolUsage;
+  private final long slowChunkMs;
+
+  private final Counter paused;
+
+  public DeletedContentPurgeJob(PostService postService, RedisService redisService, DataSource dataSource,
+      MeterRegistry meterRegistry, @Value("${spring.post.purge.enabled:true}") boolean enabled,
+      @Value("${spring.post.purge.retention-days:30}") long retentionDays,
+      @Value("${spring.post.purge.chunk-size:200}") int chunkSize,
+      @Value("${spring.post.purge.chunk-pause-ms:200}") long chunkPauseMs,
+      @Value("${spring.post.purge.max-pool-usage:0.5}") double maxPoolUsage,
+      @Value("${spring.post.purge.slow-chunk-ms:2000}") long slowChunkMs) {
+    this.postService = postService;
+    this.redisService = redisService;
+    this.dataSource = dataSource;
+    this.meterRegistry = meterRegistry;
+    this.enabled = enabled;
+    this.retentionDays = retentionDays;
+    this.chunkSize = chunkSize;
+    this.chunkPauseMs = chunkPauseMs;
+    this.maxPoolUsage = maxPoolUsage;
+    this.slowChunkMs = slowChunkMs;
+
+    this.paused = Counter.builder("post.purge.paused").register(meterRegistry);
+  }
+
+  @FunctionalInterface
+  private interface ChunkPurger {
+    List<String> purge(LocalDateTime cutoff, String afterId, int limit);
+  }
+
+  @AllArgsConstructor
+  @Getter
+  private static class Checkpoint {
+    private final LocalDateTime cutoff;
+    private final String lastId;
+  }
+
+  @Scheduled(initialDelayString = "${spring.post.purge.initial-delay-ms:300000}",
+      fixedDelayString = "${spring.post.purge.interval-ms:600000}")
+  public void purge() {
+    if (!enabled) {
+      return;
+    }
+
+    if (purge("posts", postService::purgeDeletedPosts)) {
+      purge("topics", postService::purgeDeletedTopics);
+    }
+  }
+
+  private boolean purge(String table, ChunkPurger purger) {
+    String key = redisService.setKey(table, CHECKPOINT_KEY_TYPE);
+    Checkpoint checkpoint = loadCheckpoint(key);
+    if (checkpoint == null) {
+      checkpoint = new Checkpoint(LocalDateTime.now().minusDays(retentionDays), "");
+    }
+
+    Counter purged = Counter.builder("post.purge.rows").tag("table", table).register(meterRegistry);
+    long total = 0;
+    while (true) {
+      if (overloaded()) {
+        paused.increment();
+        log.info("Tạm dừng dọn {} vì cơ sở dữ liệu đang tải cao, tiếp tục từ {} ở lần chạy sau", table,
+            checkpoint.getLastId());
+        return false;
+      }
+
+      long startedAt = System.nanoTime();
+      List<String> ids = purger.purge(checkpoint.getCutoff(), checkpoint.getLastId(), chunkSize);
+      long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+      if (ids.isEmpty()) {
+        break;
+      }
+
+      purged.increment(ids.size());
+      total += ids.size();
+      checkpoint = new Checkpoint(checkpoint.getCutoff(), ids.get(ids.size() - 1));
+      saveCheckpoint(key, checkpoint);
+      if (ids.size() < chunkSize) {
+        break;
+      }
+
+      if (elapsedMs > slowChunkMs) {
+        paused.increment();
+        log.info("Tạm dừng dọn {} vì một lô mất {} ms, tiếp tục từ {} ở lần chạy sau", table, elapsedMs,
+            checkpoint.getLastId());
+        return false;
+      }
+
+      try {
+        Thread.sleep(chunkPauseMs);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+
+    deleteCheckpoint(key);
+    if (total > 0) {
+      log.info("Đã xóa vĩnh viễn {} bản ghi {} bị xóa mềm trước {}", total, table, checkpoint.getCutoff());
+    }
+    return true;
+  }
+
+  private boolean overloaded() {
+    if (!(dataSource instanceof HikariDataSource hikari)) {
+      return false;
+    }
+
+    HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+    if (pool == null) {
+      return false;
+    }
+    if (pool.getThreadsAwaitingConnection() > 0) {
+      return true;
+    }
+    int maxPoolSize = hikari.getMaximumPoolSize();
+    return maxPoolSize > 0 && (double) pool.getActiveConnections() / maxPoolSize > maxPoolUsage;
+  }
+
+  private Checkpoint loadCheckpoint(String key) {
+    try {
+      String value = redisService.getStrings(List.of(key)).get(0);
+      if (value == null) {
+        return null;
+      }
+
+      int separator = value.indexOf('\n');
+      LocalDateTime cutoff = LocalDateTime.ofInstant(
+          Instant.ofEpochMilli(Long.parseLong(value.substring(0, separator))), ZoneId.systemDefault());
+      return new Checkpoint(cutoff, value.substring(separator + 1));
+    } catch (RuntimeException e) {
+      log.warn("Không đọc được điểm dừng dọn dữ liệu {}: {}", key, e.getMessage());
+      return null;
+    }
+  }
+
+  private void saveCheckpoint(String key, Checkpoint checkpoint) {
+    long cutoffMillis = checkpoint.getCutoff().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    try {
+      redisService.saveString(key, cutoffMillis + "\n" + checkpoint.getLastId(), Duration.ofDays(7).toSeconds(),
+          TimeUnit.SECONDS);
+    } catch (RuntimeException e) {
+      log.warn("Không ghi được điểm dừng dọn dữ liệu {}: {}", key, e.getMessage());
+    }
+  }
+
+  private void deleteCheckpoint(String key) {
+    try {
+      redisService.deleteString(key);
+    } catch (RuntimeException e) {
+      log.debug("Không có điểm dừng dọn dữ liệu {} trong Redis", key);
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package com.service.post.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+import com.service.post.dto.ImageFileDto;
+import com.service.post.entity.ImageEntity;
+
+public interface ImageDedupService {
+  Optional<ImageFileDto> findUploaded(String contentHash);
+
+  Map<String, ImageFileDto> findUploaded(Collection<String> contentHashes);
+
+  void rememberUploaded(ImageEntity image);
+
+  void releaseImages(Collection<ImageEntity> removedImages);
+}
@@ -0,0 +1,216 @@
+package com.service.post.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.service.post.dto.ImageFileDto;
+import com.service.post.entity.ImageEntity;
+import com.service.post.mq.Publisher;
+import com.service.post.redis.RedisService;
+import com.service.post.repository.ImageRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ImageDedupServiceImpl implements ImageDedupService {
+  private static final String HASH_KEY_TYPE = ":image-hash:";
+
+  private final ImageRepository imageRepository;
+  private final RedisService redisService;
+  private final Publisher publisher;
+
+  @Value("${spring.imagekit.dedup.redis-ttl-seconds:86400}")
+  private long redisTtlSeconds;
+
+  @Override
+  public Optional<ImageFileDto> findUploaded(String contentHash) {
+    if (contentHash == null) {
+      return Optional.empty();
+    }
+
+    String key = redisService.setKey(contentHash, HASH_KEY_TYPE);
+    try {
+      String cached = redisService.getStrings(List.of(key)).get(0);
+      if (cached != null) {
+        return Optional.of(decode(cached));
+      }
+    } catch (RuntimeException e) {
+      log.warn("Không đọc được chỉ mục hash ảnh trong Redis: {}", e.getMessage());
+    }
+
+    Optional<ImageEntity> image = imageRepository.findFirstByContentHashAndFileIdIsNotNull(contentHash);
+    image.ifPresent(this::rememberUploaded);
+    return image.map(this::toFile);
+  }
+
+  @Override
+  public Map<String, ImageFileDto> findUploaded(Collection<String> contentHashes) {
+    List<String> hashes = contentHashes.stream().filter(Objects::nonNull).distinct().toList();
+    Map<String, ImageFileDto> uploaded = new HashMap<>();
+    if (hashes.isEmpty()) {
+      return uploaded;
+    }
+
+    List<String> missing = hashes;
+    try {
+      List<String> cached = redisService.getStrings(hashes.stream()
+          .map(hash -> redisService.setKey(hash, HASH_KEY_TYPE)).toList());
+      missing = new ArrayList<>();
+      for (int i = 0; i < hashes.size(); i++) {
+        String value = cached != null ? cached.get(i) : null;
+        if (value != null) {
+          uploaded.put(hashes.get(i), decode(value));
+        } else {
+          missing.add(hashes.get(i));
+        }
+      }
+    } catch (RuntimeException e) {
+      log.warn("Không đọc được chỉ mục hash ảnh trong Redis: {}", e.getMessage());
+    }
+
+    if (missing.isEmpty()) {
+      return retainReferenced(uploaded);
+    }
+
+    Map<String, ImageFileDto> found = new HashMap<>();
+    for (ImageEntity image : imageRepository.findByContentHashInAndFileIdIsNotNull(missing)) {
+      // ưu tiên bản đã có thumbnail để ảnh dùng lại không mất biến thể
+      found.merge(image.getContentHash(), toFile(image),
+          (current, candidate) -> current.getThumbnailFileId() == null ? candidate : current);
+    }
+
+    Map<String, String> entries = new HashMap<>();
+    found.forEach((contentHash, file) -> {
+      uploaded.put(contentHash, file);
+      entries.put(redisService.setKey(contentHash, HASH_KEY_TYPE), encode(file));
+    });
+
+    if (!entries.isEmpty()) {
+      try {
+        redisService.saveStrings(entries, redisTtlSeconds, TimeUnit.SECONDS);
+      } catch (RuntimeException e) {
+        log.warn("Không ghi được chỉ mục hash ảnh vào Redis: {}", e.getMessage());
+      }
+    }
+    return retainReferenced(uploaded);
+  }
+
+  @Override
+  public void rememberUploaded(ImageEntity image) {
+    if (image.getContentHash() == null || image.getFileId() == null || image.getUrl() == null) {
+      return;
+    }
+
+    try {
+      redisService.saveString(redisService.setKey(image.getContentHash(), HASH_KEY_TYPE), encode(toFile(image)),
+          redisTtlSeconds, TimeUnit.SECONDS);
+    } catch (RuntimeException e) {
+      log.warn("Không ghi được chỉ mục hash ảnh vào Redis: {}", e.getMessage());
+    }
+  }
+
+  @Override
+  public void releaseImages(Collection<ImageEntity> removedImages) {
+    Map<String, String> hashByFileId = new HashMap<>();
+    Set<String> removedImageIds = new HashSet<>();
+    Set<String> thumbnailFileIds = new HashSet<>();
+    for (ImageEntity image : removedImages) {
+      removedImageIds.add(image.getId());
+      if (image.getFileId() != null && !image.getFileId().isBlank()) {
+        hashByFileId.putIfAbsent(image.getFileId().trim(), image.getContentHash());
+      }
+      if (image.getThumbnailFileId() != null && !image.getThumbnailFileId().isBlank()) {
+        thumbnailFileIds.add(image.getThumbnailFileId().trim());
+      }
+    }
+
+    if (!thumbnailFileIds.isEmpty()) {
+      imageRepository.findThumbnailFileIdsReferencedByOthers(thumbnailFileIds, removedImageIds)
+          .forEach(fileId -> thumbnailFileIds.remove(fileId.trim()));
+      if (!thumbnailFileIds.isEmpty()) {
+        publisher.sendDeleteImages(thumbnailFileIds);
+      }
+    }
+
+    if (hashByFileId.isEmpty()) {
+      return;
+    }
+
+    Set<String> orphanFileIds = new HashSet<>(hashByFileId.keySet());
+    imageRepository.findFileIdsReferencedByOthers(hashByFileId.keySet(), removedImageIds)
+        .forEach(fileId -> orphanFileIds.remove(fileId.trim()));
+
+    if (orphanFileIds.isEmpty()) {
+      return;
+    }
+
+    publisher.sendDeleteImages(orphanFileIds);
+
+    Runnable forgetHashes = () -> orphanFileIds.stream().map(hashByFileId::get).filter(Objects::nonNull)
+        .forEach(contentHash -> {
+          try {
+            redisService.deleteString(redisService.setKey(contentHash, HASH_KEY_TYPE));
+          } catch (RuntimeException e) {
+            log.debug("Không có chỉ mục hash ảnh {} trong Redis", contentHash);
+          }
+        });
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          forgetHashes.run();
+        }
+      });
+    } else {
+      forgetHashes.run();
+    }
+  }
+
+  private Map<String, ImageFileDto> retainReferenced(Map<String, ImageFileDto> uploaded) {
+    if (uploaded.isEmpty()) {
+      return uploaded;
+    }
+
+    Set<String> referenced = new HashSet<>();
+    imageRepository.lockFileIds(uploaded.values().stream().map(ImageFileDto::getFileId).distinct().toList())
+        .forEach(fileId -> referenced.add(fileId.trim()));
+    uploaded.values().removeIf(file -> !referenced.contains(file.getFileId()));
+    return uploaded;
+  }
+
+  private ImageFileDto toFile(ImageEntity image) {
+    String thumbnailFileId = image.getThumbnailFileId() != null ? image.getThumbnailFileId().trim() : null;
+    return new ImageFileDto(image.getFileId().trim(), image.getUrl(), thumbnailFileId,
+        thumbnailFileId != null ? image.getThumbnailUrl() : null);
+  }
+
+  private String encode(ImageFileDto file) {
+    if (file.getThumbnailFileId() == null) {
+      return file.getFileId() + "\n" + file.getUrl();
+    }
+    return file.getFileId() + "\n" + file.getUrl() + "\n" + file.getThumbnailFileId() + "\n" + file.getThumbnailUrl();
+  }
+
+  private ImageFileDto decode(String cached) {
+    String[] parts = cached.split("\n", -1);
+    return parts.length >= 4 ? new ImageFileDto(parts[0], parts[1], parts[2], parts[3])
+        : new ImageFileDto(parts[0], parts[1], null, null);
+  }
+}
@@ -0,0 +1,118 @@
+package com.service.post.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.service.post.common.CompressedTextConverter;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+public class PostContentMigration implements SmartInitializingSingleton {
+  private static final long MIGRATION_LOCK_KEY = 0x706f7374636f6eL;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final int batchSize;
+  private final boolean dropLegacyColumn;
+
+  public PostContentMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+      @Value("${spring.post.content-migration.batch-size:500}") int batchSize,
+      @Value("${spring.post.content-migration.drop-legacy-column:false}") boolean dropLegacyColumn) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.batchSize = batchSize;
+    this.dropLegacyColumn = dropLegacyColumn;
+  }
+
+  @AllArgsConstructor
+  @Getter
+  private static class LegacyContent {
+    private final String postId;
+    private final String content;
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    locked(() -> jdbcTemplate.execute("ALTER TABLE posts ALTER COLUMN search_vector DROP EXPRESSION IF EXISTS"));
+
+    if (!hasLegacyContentColumn()) {
+      return;
+    }
+
+    log.info("Bắt đầu chuyển nội dung bài viết sang bảng post_contents");
+    locked(() -> jdbcTemplate.execute("ALTER TABLE posts ALTER COLUMN content DROP NOT NULL"));
+
+    long migrated = 0;
+    Integer moved;
+    do {
+      moved = transactionTemplate.execute(status -> {
+        lock();
+        return migrateBatch();
+      });
+      migrated += moved != null ? moved : 0;
+    } while (moved != null && moved == batchSize);
+    log.info("Đã chuyển nội dung của {} bài viết sang bảng post_contents", migrated);
+
+    if (dropLegacyColumn) {
+      locked(() -> {
+        if (!hasLegacyContentColumn()) {
+          return;
+        }
+        migrateBatch();
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM posts WHERE content IS NOT NULL)", Boolean.class))) {
+          log.warn("Vẫn còn nội dung trong cột posts.content, chưa xóa cột này");
+          return;
+        }
+        jdbcTemplate.execute("ALTER TABLE posts DROP COLUMN IF EXISTS content");
+        log.info("Đã xóa cột posts.content");
+      });
+    }
+  }
+
+  private void locked(Runnable action) {
+    transactionTemplate.executeWithoutResult(status -> {
+      lock();
+      action.run();
+    });
+  }
+
+  private void lock() {
+    jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, MIGRATION_LOCK_KEY);
+  }
+
+  private int migrateBatch() {
+    List<LegacyContent> rows = jdbcTemplate.query(
+        "SELECT id, content FROM posts WHERE content IS NOT NULL ORDER BY id LIMIT ? FOR UPDATE",
+        (rs, i) -> new LegacyContent(rs.getString("id"), rs.getString("content")), batchSize);
+    if (rows.isEmpty()) {
+      return 0;
+    }
+
+    jdbcTemplate.batchUpdate("INSERT INTO post_contents (post_id, content) VALUES (?, ?) "
+        + "ON CONFLICT (post_id) DO UPDATE SET content = EXCLUDED.content",
+        rows, rows.size(), (ps, row) -> {
+          ps.setString(1, row.getPostId());
+          ps.setBytes(2, CompressedTextConverter.encode(row.getContent()));
+        });
+    jdbcTemplate.batchUpdate("UPDATE posts SET content = NULL WHERE id = ?", rows, rows.size(),
+        (ps, row) -> ps.setString(1, row.getPostId()));
+    return rows.size();
+  }
+
+  private boolean hasLegacyContentColumn() {
+    Integer columns = jdbcTemplate.queryForObject("SELECT count(*) FROM information_schema.columns "
+        + "WHERE table_schema = current_schema() AND table_name = 'posts' AND column_name = 'content'",
+        Integer.class);
+    return columns != null && columns > 0;
+  }
+}
@@ -0,0 +1,158 @@
+package com.service.post.service;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.service.post.PostAdminDetailsResponse;
+import com.service.post.redis.RedisService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+public class PostDetailsCache {
+  private static final String POST_KEY_TYPE = ":post:";
+  private static final String POST_VERSION_KEY_TYPE = ":post-version:";
+
+  private final RedisService redisService;
+  private final TopicCatalog topicCatalog;
+  private final Cache<String, PostAdminDetailsResponse> localCache;
+  private final long redisTtlSeconds;
+
+  private final Counter localHits;
+  private final Counter redisHits;
+  private final Counter misses;
+
+  public PostDetailsCache(RedisService redisService, TopicCatalog topicCatalog, MeterRegistry meterRegistry,
+      @Value("${spring.post.cache.local-max-size:1000}") long localMaxSize,
+      @Value("${spring.post.cache.local-ttl-ms:2000}") long localTtlMs,
+      @Value("${spring.post.cache.redis-ttl-seconds:600}") long redisTtlSeconds) {
+    this.redisService = redisService;
+    this.topicCatalog = topicCatalog;
+    this.redisTtlSeconds = redisTtlSeconds;
+    this.localCache = Caffeine.newBuilder().maximumSize(localMaxSize).expireAfterWrite(Duration.ofMillis(localTtlMs))
+        .build();
+
+    this.localHits = Counter.builder("post.cache.requests").tag("tier", "local").tag("result", "hit")
+        .register(meterRegistry);
+    this.redisHits = Counter.builder("post.cache.requests").tag("tier", "redis").tag("result", "hit")
+        .register(meterRegistry);
+    this.misses = Counter.builder("post.cache.requests").tag("tier", "redis").tag("result", "miss")
+        .register(meterRegistry);
+  }
+
+  public PostAdminDetailsResponse get(String postId, Supplier<PostAdminDetailsResponse> loader) {
+    PostAdminDetailsResponse local = localCache.getIfPresent(postId);
+    if (local != null) {
+      localHits.increment();
+      return local;
+    }
+
+    String version;
+    String dataKey;
+    try {
+      version = currentVersion(postId);
+      dataKey = redisService.setKey(postId + ":" + (version != null ? version : "0") + ":" + topicCatalog.version(),
+          POST_KEY_TYPE);
+
+      String cached = redisService.getStrings(List.of(dataKey)).get(0);
+      PostAdminDetailsResponse post = cached != null ? decode(cached) : null;
+      if (post != null) {
+        redisHits.increment();
+        putLocal(postId, version, post);
+        return post;
+      }
+    } catch (RuntimeException e) {
+      log.warn("Không đọc được bộ nhớ đệm bài viết {} trong Redis: {}", postId, e.getMessage());
+      return loader.get();
+    }
+
+    misses.increment();
+    PostAdminDetailsResponse post = loader.get();
+    if (!post.hasCreatedBy() || !post.hasUpdatedBy()) {
+      return post;
+    }
+
+    try {
+      if (!Objects.equals(version, currentVersion(postId))) {
+        return post;
+      }
+      redisService.saveString(dataKey, Base64.getEncoder().encodeToString(post.toByteArray()), redisTtlSeconds,
+          TimeUnit.SECONDS);
+      if (version != null) {
+        redisService.expire(redisService.setKey(postId, POST_VERSION_KEY_TYPE), versionTtlSeconds(),
+            TimeUnit.SECONDS);
+      }
+      putLocal(postId, version, post);
+    } catch (RuntimeException e) {
+      log.warn("Không ghi được bộ nhớ đệm bài viết {} vào Redis: {}", postId, e.getMessage());
+    }
+    return post;
+  }
+
+  public void invalidate(String postId) {
+    invalidate(List.of(postId));
+  }
+
+  public void invalidate(Collection<String> postIds) {
+    Runnable bumpVersions = () -> postIds.forEach(postId -> {
+      try {
+        redisService.increment(redisService.setKey(postId, POST_VERSION_KEY_TYPE), versionTtlSeconds(),
+            TimeUnit.SECONDS);
+      } catch (RuntimeException e) {
+        log.warn("Không làm mới được phiên bản bộ nhớ đệm bài viết {}: {}", postId, e.getMessage());
+      }
+      localCache.invalidate(postId);
+    });
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          bumpVersions.run();
+        }
+      });
+    } else {
+      bumpVersions.run();
+    }
+  }
+
+  private String currentVersion(String postId) {
+    return redisService.getStrings(List.of(redisService.setKey(postId, POST_VERSION_KEY_TYPE))).get(0);
+  }
+
+  private void putLocal(String postId, String version, PostAdminDetailsResponse post) {
+    localCache.put(postId, post);
+    if (!Objects.equals(version, currentVersion(postId))) {
+      localCache.invalidate(postId);
+    }
+  }
+
+  private long versionTtlSeconds() {
+    return redisTtlSeconds * 2;
+  }
+
+  private PostAdminDetailsResponse decode(String value) {
+    try {
+      return PostAdminDetailsResponse.parseFrom(Base64.getDecoder().decode(value));
+    } catch (InvalidProtocolBufferException | IllegalArgumentException e) {
+      log.warn("Dữ liệu bài viết trong Redis không hợp lệ: {}", e.getMessage());
+      return null;
+    }
+  }
+}
@@ -1,20 +1,25 @@
 package com.service.post.service;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.service.post.CreatePostRequest;
+import com.service.post.CreatePostsRequest;
+import com.service.post.CreatePostsResponse;
 import com.service.post.CreateTopicRequest;
 import com.service.post.DeleteManyRequest;
 import com.service.post.DeleteOneRequest;
 import com.service.post.GetAllPostsAdminRequest;
 import com.service.post.PostAdminDetailsResponse;
+import com.service.post.PostAdminResponse;
 import com.service.post.PostsAdminResponse;
 import com.service.post.RestoreManyRequest;
 import com.service.post.RestoreOneRequest;
 import com.service.post.TopicsAdminResponse;
+import com.service.post.TopicsResponse;
 import com.service.post.UpdatePostRequest;
 import com.service.post.UpdateTopicRequest;
-import com.service.post.entity.TopicEntity;
 
 public interface PostService {
   String createTopic(CreateTopicRequest request);
@@ -23,7 +28,7 @@ public interface PostService {
 
   TopicsAdminResponse getDeletedTopics();
 
-  List<TopicEntity> getAllTopics();
+  TopicsResponse getAllTopics();
 
   void updateTopic(UpdateTopicRequest request);
 
@@ -39,10 +44,16 @@ public interface PostService {
 
   void permanentlyDeleteTopics(List<String> topicIds);
 
+  List<String> purgeDeletedTopics(LocalDateTime cutoff, String afterId, int limit);
+
   String createPost(CreatePostRequest request);
 
+  CreatePostsResponse createPosts(CreatePostsRequest request);
+
   PostsAdminResponse getAllPostsAdmin(GetAllPostsAdminRequest request);
 
+  void streamPosts(GetAllPostsAdminRequest request, Consumer<PostAdminResponse> consumer);
+
   PostAdminDetailsResponse getPostById(String id);
 
   String getPostContentById(String id);
@@ -61,6 +72,8 @@ public interface PostService {
 
   void permanentlyDeletePosts(List<String> postIds);
 
+  List<String> purgeDeletedPosts(LocalDateTime cutoff, String afterId, int limit);
+
   PostsAdminResponse getDeletedPosts(GetAllPostsAdminRequest request);
 
   PostAdminDetailsResponse getDeletedPostById(String id);
@@ -1,30 +1,40 @@
 package com.service.post.service;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-import org.springframework.data.domain.Page;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.service.post.BaseProfileResponse;
 import com.service.post.BaseUserResponse;
+import com.service.post.ContentEdit;
 import com.service.post.CreatePostRequest;
+import com.service.post.CreatePostResult;
+import com.service.post.CreatePostsRequest;
+import com.service.post.CreatePostsResponse;
 import com.service.post.RestoreManyRequest;
 import com.service.post.RestoreOneRequest;
 import com.service.post.SimpleImageResponse;
@@ -32,16 +42,28 @@ import com.service.post.SimpleTopicResponse;
 import com.service.post.TopicAdminResponse;
 import com.service.post.TopicResponse;
 import com.service.post.TopicsAdminResponse;
+import com.service.post.TopicsResponse;
 import com.service.post.UpdatePostRequest;
 import com.service.post.UpdateTopicRequest;
+import com.service.post.common.ImageHashUtil;
+import com.service.post.common.InlineImageScanner;
+import com.service.post.common.InlineImageScanner.ImageSource;
+import com.service.post.common.PageCursor;
 import com.service.post.common.SlugUtil;
 import com.service.post.dto.Base64UploadDto;
+import com.service.post.dto.ImageFileDto;
+import com.service.post.dto.ImageUploadedDto;
+import com.service.post.dto.PostSummaryDto;
 import com.service.post.entity.ImageEntity;
+import com.service.post.entity.PostContentEntity;
 import com.service.post.entity.PostEntity;
 import com.service.post.entity.TopicEntity;
 import com.service.post.exceptions.AlreadyExistsException;
+import com.service.post.exceptions.ConflictException;
+import com.service.post.exceptions.InvalidArgumentException;
 import com.service.post.exceptions.ResourceNotFoundException;
-import com.service.post.grpc_clients.UserClient;
+import com.service.post.grpc_clients.CachedUserClient;
+import com.service.post.mq.ImagePatchBuffer;
 import com.service.post.mq.Publisher;
 import com.service.post.redis.RedisService;
 import com.service.post.CreateTopicRequest;
@@ -53,6 +75,7 @@ import com.service.post.PostAdminDetailsResponse;
 import com.service.post.PostAdminResponse;
 import com.service.post.PostsAdminResponse;
 import com.service.post.repository.ImageRepository;
+import com.service.post.repository.PostContentRepository;
 import com.service.post.repository.PostRepository;
 import com.service.post.repository.TopicRepository;
 import com.service.post.specification.PostSpecification;
@@ -60,17 +83,42 @@ import com.service.user.UserPublicResponse;
 import com.service.user.UsersPublicResponse;
 
 import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class PostServiceImpl implements PostService {
+  private static final Map<String, Class<?>> KEYSET_SORT_FIELDS = Map.of("createdAt", LocalDateTime.class,
+      "updatedAt", LocalDateTime.class, "title", String.class, "slug", String.class);
+  private static final String POST_SLUG_CONSTRAINT = "posts_slug_key";
+  private static final String TOPIC_SLUG_CONSTRAINT = "topics_slug_key";
+
   private final TopicRepository topicRepository;
   private final PostRepository postRepository;
+  private final PostContentRepository postContentRepository;
   private final ImageRepository imageRepository;
   private final RedisService redisService;
   private final Publisher publisher;
-  private final UserClient userClient;
+  private final CachedUserClient userClient;
+  private final ImageDedupService imageDedupService;
+  private final PostDetailsCache postDetailsCache;
+  private final TopicCatalog topicCatalog;
+  private final SlugFilter slugFilter;
+  private final TransactionTemplate transactionTemplate;
+
+  @AllArgsConstructor
+  @Getter
+  private static class PostUploads {
+    private final String postId;
+    private final String userId;
+    private final int dataImageCount;
+    private final List<Base64UploadDto.Base64UploadDtoBuilder> uploads;
+    private final PostContentEntity content;
+  }
 
   @Value("${spring.imagekit.url_endpoint}")
   private String imageKitUrlEndpoint;
@@ -78,24 +126,34 @@ public class PostServiceImpl implements PostService {
   @Value("${spring.imagekit.folder}")
   private String imageKitFolder;
 
+  @Value("${spring.grpc.services.user.lookup-timeout-ms:1000}")
+  private long userLookupTimeoutMs;
+
+  @Value("${spring.rabbitmq.upload.pending-ttl-seconds:86400}")
+  private long pendingImagesTtlSeconds;
+
+  @Value("${spring.grpc.server.stream.fetch-size:500}")
+  private int streamFetchSize;
+
   @Override
   public String createTopic(CreateTopicRequest request) {
     String slug = request.hasSlug() && !request.getSlug().isEmpty() ? request.getSlug()
         : SlugUtil.toSlug(request.getName());
 
-    if (topicRepository.existsBySlug(slug)) {
+    if (slugFilter.exists(SlugFilter.Table.TOPICS, slug, topicRepository::existsBySlug)) {
       throw new AlreadyExistsException("slug chủ đề đã tồn tại");
     }
 
     TopicEntity topic = TopicEntity.builder().name(request.getName()).slug(slug).createdById(request.getUserId())
         .updatedById(request.getUserId()).build();
-    topicRepository.save(topic);
+    saveTopicSlug(topic, "slug chủ đề đã tồn tại");
+    topicCatalog.topicsChanged();
     return topic.getId();
   }
 
   @Override
   public TopicsAdminResponse getAllTopicsAdmin() {
-    List<TopicEntity> topics = topicRepository.findAllByDeletedTopicIsFalse();
+    List<TopicEntity> topics = topicCatalog.activeTopics();
 
     if (topics.isEmpty()) {
       return TopicsAdminResponse.newBuilder().build();
@@ -172,8 +230,8 @@ public class PostServiceImpl implements PostService {
   }
 
   @Override
-  public List<TopicEntity> getAllTopics() {
-    return topicRepository.findAllByDeletedTopicIsFalse();
+  public TopicsResponse getAllTopics() {
+    return topicCatalog.topicsResponse();
   }
 
   @Override
@@ -186,7 +244,7 @@ public class PostServiceImpl implements PostService {
       topic.setName(request.getName());
     }
     if (!topic.getSlug().equals(request.getSlug())) {
-      if (topicRepository.existsBySlug(request.getSlug())) {
+      if (slugFilter.exists(SlugFilter.Table.TOPICS, request.getSlug(), topicRepository::existsBySlug)) {
         throw new AlreadyExistsException("slug đã tồn tại");
       }
       topic.setSlug(request.getSlug());
@@ -195,7 +253,8 @@ public class PostServiceImpl implements PostService {
       topic.setUpdatedById(request.getUserId());
     }
 
-    topicRepository.save(topic);
+    saveTopicSlug(topic, "slug đã tồn tại");
+    topicCatalog.topicsChanged();
   }
 
   @Override
@@ -204,12 +263,14 @@ public class PostServiceImpl implements PostService {
         .orElseThrow(() -> new ResourceNotFoundException("không tìm thấy chủ đề bài viết"));
 
     topic.setDeletedTopic(true);
+    topic.setDeletedAt(LocalDateTime.now());
 
     if (!topic.getUpdatedById().equals(request.getUserId())) {
       topic.setUpdatedById(request.getUserId());
     }
 
     topicRepository.save(topic);
+    topicCatalog.topicsChanged();
   }
 
   @Override
@@ -220,7 +281,8 @@ public class PostServiceImpl implements PostService {
       throw new ResourceNotFoundException("Có chủ đề không tìm thấy");
     }
 
-    topicRepository.updateIsDeletedAllById(request.getIdsList(), true, request.getUserId());
+    topicRepository.updateIsDeletedAllById(request.getIdsList(), true, LocalDateTime.now(), request.getUserId());
+    topicCatalog.topicsChanged();
   }
 
   @Override
@@ -229,12 +291,14 @@ public class PostServiceImpl implements PostService {
         .orElseThrow(() -> new ResourceNotFoundException("không tìm thấy chủ đề bài viết"));
 
     topic.setDeletedTopic(false);
+    topic.setDeletedAt(null);
 
     if (!topic.getUpdatedById().equals(request.getUserId())) {
       topic.setUpdatedById(request.getUserId());
     }
 
     topicRepository.save(topic);
+    topicCatalog.topicsChanged();
   }
 
   @Override
@@ -245,7 +309,8 @@ public class PostServiceImpl implements PostService {
       throw new ResourceNotFoundException("Có chủ đề không tìm thấy");
     }
 
-    topicRepository.updateIsDeletedAllById(request.getIdsList(), false, request.getUserId());
+    topicRepository.updateIsDeletedAllById(request.getIdsList(), false, null, request.getUserId());
+    topicCatalog.topicsChanged();
   }
 
   @Override
@@ -254,6 +319,7 @@ public class PostServiceImpl implements PostService {
         .orElseThrow(() -> new ResourceNotFoundException("không tìm thấy chủ đề"));
 
     topicRepository.delete(topic);
+    topicCatalog.topicsChanged();
   }
 
   @Override
@@ -264,134 +330,170 @@ public class PostServiceImpl implements PostService {
     }
 
     topicRepository.deleteAll(topics);
+    topicCatalog.topicsChanged();
+  }
+
+  @Override
+  @Transactional
+  public List<String> purgeDeletedTopics(LocalDateTime cutoff, String afterId, int limit) {
+    List<String> topicIds = topicRepository.lockPurgeCandidates(cutoff, afterId, limit);
+    if (!topicIds.isEmpty()) {
+      topicRepository.deleteAllByIdInBatch(topicIds);
+      topicCatalog.topicsChanged();
+    }
+    return topicIds;
   }
 
   @Override
   @Transactional
   public String createPost(CreatePostRequest request) {
-    TopicEntity topic = topicRepository.findByIdAndDeletedTopicFalse(request.getTopicId())
-        .orElseThrow(() -> new ResourceNotFoundException("không tìm thấy chủ đề"));
+    TopicEntity topic = activeTopicReference(request.getTopicId());
 
     String slug = SlugUtil.toSlug(request.getTitle());
 
-    if (postRepository.existsBySlug(slug)) {
+    if (slugFilter.exists(SlugFilter.Table.POSTS, slug, postRepository::existsBySlug)) {
       throw new AlreadyExistsException("tiêu đề bài viết đã tồn tại");
     }
 
     LocalDateTime publishedAt = request.getIsPublished() ? LocalDateTime.now() : null;
 
-    PostEntity post = PostEntity.builder().title(request.getTitle()).slug(slug).content(request.getContent())
-        .topic(topic).publishedPost(request.getIsPublished()).publishedAt(publishedAt).createdById(request.getUserId())
+    PostEntity post = PostEntity.builder().title(request.getTitle()).slug(slug).topic(topic)
+        .publishedPost(request.getIsPublished()).publishedAt(publishedAt).createdById(request.getUserId())
         .updatedById(request.getUserId()).build();
 
-    postRepository.saveAndFlush(post);
+    savePostSlug(post);
 
-    List<ImageEntity> images = new ArrayList<>();
+    String content = request.getContent();
+    Map<ImageSource, String> hashes = hashDataImages(content, InlineImageScanner.scan(content));
+    Map<String, ImageFileDto> uploaded = imageDedupService.findUploaded(hashes.values());
 
-    Document doc = Jsoup.parse(request.getContent());
-    Elements imgTags = doc.select("img[src^=data:image]");
+    PostUploads postUploads = attachInlineImages(post, content, hashes, uploaded, request.getUserId());
+    sendUploads(List.of(postUploads));
+    refreshSearchVectors(List.of(postUploads.getContent()));
 
-    long newImages = imgTags.size();
-    String qImgRedisKey = redisService.setKey(post.getId(), ":image:");
-    redisService.saveString(qImgRedisKey, String.valueOf(newImages), 1, TimeUnit.MINUTES);
-
-    int sortOrder = 1;
-    for (Element img : imgTags) {
-      String src = img.attr("src");
-
-      String ext = getExtension(src);
-
-      ImageEntity image = ImageEntity.builder().sortOrder(sortOrder).post(post)
-          .thumbnailImage(sortOrder == 1).build();
-      imageRepository.saveAndFlush(image);
-      images.add(image);
-
-      String fileName = String.format("%s-%s_%d.%s", slug, image.getId(), sortOrder, ext);
+    return post.getId();
+  }
 
-      String base64Data = src.substring(src.indexOf(",") + 1);
+  @Override
+  public CreatePostsResponse createPosts(CreatePostsRequest request) {
+    int count = request.getPostsCount();
+    String[] slugs = new String[count];
+    String[] errors = new String[count];
+    Set<String> batchSlugs = new HashSet<>();
+
+    for (int i = 0; i < count; i++) {
+      CreatePostRequest item = request.getPosts(i);
+      slugs[i] = SlugUtil.toSlug(item.getTitle());
+      if (topicCatalog.findActive(item.getTopicId()).isEmpty()) {
+        errors[i] = "không tìm thấy chủ đề";
+      } else if (!batchSlugs.add(slugs[i])) {
+        errors[i] = "tiêu đề bài viết đã tồn tại";
+      }
+    }
 
-      String redisKey = redisService.setKey(image.getId(), ":image:");
-      redisService.saveString(redisKey, src, 1, TimeUnit.MINUTES);
+    Set<String> existingSlugs = slugFilter.existing(SlugFilter.Table.POSTS, batchSlugs,
+        postRepository::findExistingSlugs);
 
-      Base64UploadDto uploadImageRequest = Base64UploadDto.builder().imageId(image.getId()).fileName(fileName)
-          .folder(imageKitFolder).base64Data(base64Data).postId(post.getId()).userId(request.getUserId())
-          .totalImages(imgTags.size()).build();
-      publisher.sendUploadImage(uploadImageRequest);
+    List<Integer> validIndexes = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      if (errors[i] == null && existingSlugs.contains(slugs[i])) {
+        errors[i] = "tiêu đề bài viết đã tồn tại";
+      }
+      if (errors[i] == null) {
+        validIndexes.add(i);
+      }
+    }
 
-      sortOrder++;
+    Map<Integer, String> postIds = new HashMap<>();
+    if (!validIndexes.isEmpty()) {
+      try {
+        postIds = transactionTemplate.execute(status -> insertPosts(request, validIndexes, slugs));
+      } catch (DataIntegrityViolationException e) {
+        log.warn("Chèn lô {} bài viết thất bại, chuyển sang tạo từng bài: {}", validIndexes.size(), e.getMessage());
+        postIds = new HashMap<>();
+        for (int i : validIndexes) {
+          CreatePostRequest item = request.getPosts(i);
+          try {
+            postIds.put(i, transactionTemplate.execute(status -> createPost(item)));
+          } catch (AlreadyExistsException | ResourceNotFoundException | InvalidArgumentException
+              | ConflictException ex) {
+            errors[i] = ex.getMessage();
+          } catch (RuntimeException ex) {
+            log.error("Tạo bài viết thứ {} trong lô thất bại: {}", i, ex.getMessage(), ex);
+            errors[i] = "tạo bài viết thất bại";
+          }
+        }
+      }
     }
 
-    return post.getId();
+    CreatePostsResponse.Builder responseBuilder = CreatePostsResponse.newBuilder();
+    for (int i = 0; i < count; i++) {
+      CreatePostResult.Builder result = CreatePostResult.newBuilder().setIndex(i);
+      if (errors[i] != null) {
+        result.setError(errors[i]);
+      } else {
+        result.setId(postIds.get(i));
+      }
+      responseBuilder.addResults(result);
+    }
+    return responseBuilder.build();
   }
 
   @Override
   @Transactional
   public PostsAdminResponse getAllPostsAdmin(GetAllPostsAdminRequest request) {
-    int page = request.getPage() > 0 ? request.getPage() - 1 : 0;
-    int limit = request.getLimit() > 0 ? request.getLimit() : 10;
+    return getPostsAdmin(PostSpecification.notDeleted(), request);
+  }
 
+  @Override
+  public void streamPosts(GetAllPostsAdminRequest request, Consumer<PostAdminResponse> consumer) {
     String sortField = (request.getSort() != null && !request.getSort().isEmpty()) ? snakeToCamel(request.getSort())
         : "createdAt";
+    if (!KEYSET_SORT_FIELDS.containsKey(sortField)) {
+      throw new InvalidArgumentException("không hỗ trợ sắp xếp theo " + request.getSort() + " khi xuất bài viết");
+    }
     Sort.Direction direction = "asc".equalsIgnoreCase(request.getOrder()) ? Sort.Direction.ASC : Sort.Direction.DESC;
+    Sort sort = Sort.by(direction, sortField).and(Sort.by(direction, "id"));
+
+    Specification<PostEntity> spec = buildPostsSpec(PostSpecification.notDeleted(), request);
+
+    Specification<PostEntity> pageSpec = spec;
+    List<PostSummaryDto> rows;
+    do {
+      Specification<PostEntity> currentSpec = pageSpec;
+      rows = transactionTemplate.execute(status -> postRepository.findSummaries(currentSpec, sort, null, 0,
+          streamFetchSize));
+      if (rows == null || rows.isEmpty()) {
+        return;
+      }
 
-    Pageable pageable = PageRequest.of(page, limit, Sort.by(direction, sortField));
-
-    Specification<PostEntity> spec = PostSpecification.notDeleted()
-        .and(PostSpecification.hasTitleLike(request.getSearch()))
-        .and(PostSpecification.hasTopicId(request.getTopicId()))
-        .and(PostSpecification.hasPublished(request.hasIsPublished() ? request.getIsPublished() : null));
-
-    Page<PostEntity> postsPage = postRepository.findAll(spec, pageable);
-
-    List<PostAdminResponse> posts = postsPage.getContent().stream().map(this::toPostAdminResponse).toList();
-
-    PaginationMetaResponse meta = PaginationMetaResponse.newBuilder().setPage(postsPage.getNumber() + 1)
-        .setLimit(postsPage.getSize()).setTotal((int) postsPage.getTotalElements())
-        .setTotalPages(postsPage.getTotalPages()).setHasPrev(postsPage.hasPrevious()).setHasNext(postsPage.hasNext())
-        .build();
+      rows.forEach(post -> consumer.accept(toPostAdminResponse(post)));
 
-    return PostsAdminResponse.newBuilder().addAllPosts(posts).setMeta(meta).build();
+      PostSummaryDto last = rows.get(rows.size() - 1);
+      pageSpec = spec.and(PostSpecification.seekAfter(sortField, direction.isAscending(),
+          (Comparable<?>) last.getSortValue(), last.getId()));
+    } while (rows.size() == streamFetchSize);
   }
 
   @Override
-  @Transactional
   public PostAdminDetailsResponse getPostById(String id) {
-    PostEntity post = postRepository.findByIdAndDeletedPostFalse(id)
-        .orElseThrow(() -> new ResourceNotFoundException("không tìm thấy bài viết"));
-
-    Set<String> userIdSet = new HashSet<>();
-    userIdSet.add(post.getCreatedById());
-    userIdSet.add(post.getUpdatedById());
-    List<String> userIds = new ArrayList<>(userIdSet);
-
-    UsersPublicResponse usersRes = userClient.getUsersPublicById(userIds);
+    return postDetailsCache.get(id, () -> transactionTemplate.execute(status -> {
+      PostEntity post = postRepository.findByIdAndDeletedPostFalse(id)
+          .orElseThrow(() -> new ResourceNotFoundException("không tìm thấy bài viết"));
 
-    Map<String, UserPublicResponse> usersMap = usersRes.getUsersList().stream()
-        .collect(Collectors.toMap(UserPublicResponse::getId, u -> u));
-
-    PostAdminDetailsResponse.Builder postBuilder = PostAdminDetailsResponse.newBuilder().setId(post.getId())
-        .setTitle(post.getTitle()).setSlug(post.getSlug()).setContent(post.getContent())
-        .setTopic(toSimpleTopicResponse(post.getTopic())).setIsPublished(post.isPublishedPost())
-        .setCreatedAt(post.getCreatedAt().toString()).setUpdatedAt(post.getUpdatedAt().toString());
-    if (post.getPublishedAt() != null) {
-      postBuilder.setPublishedAt(post.getPublishedAt().toString());
-    }
-    if (usersMap.containsKey(post.getCreatedById())) {
-      postBuilder.setCreatedBy(toBaseUserResponse(usersMap.get(post.getCreatedById())));
-    }
-    if (usersMap.containsKey(post.getUpdatedById())) {
-      postBuilder.setUpdatedBy(toBaseUserResponse(usersMap.get(post.getUpdatedById())));
-    }
+      CompletableFuture<UsersPublicResponse> usersFuture = userClient
+          .getUsersPublicByIdAsync(List.of(post.getCreatedById(), post.getUpdatedById()));
 
-    return postBuilder.build();
+      return toPostAdminDetailsResponse(post, loadContent(post.getId()), usersFuture);
+    }));
   }
 
   @Override
   public String getPostContentById(String id) {
-    PostEntity post = postRepository.findById(id)
+    PostContentEntity postContent = postContentRepository.findById(id)
         .orElseThrow(() -> new ResourceNotFoundException("không tìm thấy bài viết"));
 
-    return post.getContent();
+    return postContent.getContent();
   }
 
   @Override
@@ -400,86 +502,43 @@ public class PostServiceImpl implements PostService {
     PostEntity post = postRepository.findByIdAndDeletedPostFalse(request.getId())
         .orElseThrow(() -> new ResourceNotFoundException("không tìm thấy bài viết"));
 
+    CompletableFuture<UsersPublicResponse> usersFuture = userClient
+        .getUsersPublicByIdAsync(List.of(post.getCreatedById(), request.getUserId()));
+
+    PostContentEntity postContent = postContentRepository.findByPostIdForUpdate(post.getId())
+        .orElseGet(() -> PostContentEntity.builder().post(post).content("").build());
+    if (request.hasBaseRevision() && !acceptsBaseRevision(postContent, request.getBaseRevision())) {
+      throw new ConflictException("nội dung bài viết đã được cập nhật ở phiên bản " + postContent.getRevision());
+    }
+    boolean searchableChanged = false;
+
     if (request.hasTitle() && !request.getTitle().isEmpty() && !post.getTitle().equals(request.getTitle())) {
       String slug = SlugUtil.toSlug(request.getTitle());
 
-      if (postRepository.existsBySlug(slug)) {
+      if (slugFilter.exists(SlugFilter.Table.POSTS, slug, postRepository::existsBySlug)) {
         throw new AlreadyExistsException("tiêu đề bài viết đã tồn tại");
       }
 
       post.setTitle(request.getTitle());
       post.setSlug(slug);
+      searchableChanged = true;
     }
 
-    if (request.hasContent() && !request.getContent().isEmpty() && !post.getContent().equals(request.getContent())) {
-      post.setContent(request.getContent());
-
-      List<ImageEntity> oldImages = imageRepository.findByPostIdOrderBySortOrderAsc(post.getId());
-
-      Document doc = Jsoup.parse(request.getContent());
-      Elements imgTags = doc.select("img[src]");
-
-      long totalNewImages = imgTags.stream().filter(img -> img.attr("src").startsWith("data:image")).count();
-
-      String qImgRedisKey = redisService.setKey(request.getId(), ":image:");
-      redisService.saveString(qImgRedisKey, String.valueOf(totalNewImages), 1, TimeUnit.MINUTES);
-
-      int sortOrder = 1;
-      Set<String> usedImageIds = new HashSet<>();
-      String slug = post.getSlug();
-
-      for (Element img : imgTags) {
-        String src = img.attr("src");
-        if (src.startsWith("https")) {
-          ImageEntity existing = oldImages.stream().filter(imageEntity -> src.equals(imageEntity.getUrl())).findFirst()
-              .orElse(null);
-          if (existing != null) {
-            existing.setSortOrder(sortOrder);
-            existing.setThumbnailImage(sortOrder == 1);
-            imageRepository.save(existing);
-            usedImageIds.add(existing.getId());
-          }
-        } else if (src.startsWith("data:image")) {
-          ImageEntity newImage = ImageEntity.builder().sortOrder(sortOrder).thumbnailImage(sortOrder == 1).post(post)
-              .build();
-          imageRepository.save(newImage);
-
-          String ext = getExtension(src);
-          String fileName = String.format("%s-%s_%d.%s", slug, newImage.getId(), sortOrder, ext);
-          String base64Data = src.substring(src.indexOf(",") + 1);
-
-          String redisKey = redisService.setKey(newImage.getId(), ":image:");
-          redisService.saveString(redisKey, src, 1, TimeUnit.MINUTES);
-
-          Base64UploadDto uploadImageRequest = Base64UploadDto.builder().imageId(newImage.getId()).fileName(fileName)
-              .folder(imageKitFolder).base64Data(base64Data).postId(post.getId()).totalImages((int) totalNewImages)
-              .userId(request.getUserId()).build();
-
-          publisher.sendUploadImage(uploadImageRequest);
-
-          usedImageIds.add(newImage.getId());
-        }
-
-        sortOrder++;
-      }
-
-      for (ImageEntity oldImage : oldImages) {
-        if (!usedImageIds.contains(oldImage.getId())) {
-          imageRepository.delete(oldImage);
-
-          if (oldImage.getFileId().trim() != "") {
-            publisher.sendDeleteImage(oldImage.getFileId());
-          }
-        }
+    if (request.getEditsCount() > 0) {
+      if (!request.hasBaseRevision()) {
+        throw new InvalidArgumentException("thiếu phiên bản gốc cho bản vá nội dung");
       }
+      applyContentEdits(post, postContent, request.getEditsList(), request.getBaseRevision(), request.getUserId());
+      searchableChanged = true;
+    } else if (request.hasContent() && !request.getContent().isEmpty()
+        && !postContent.getContent().equals(request.getContent())) {
+      replaceContent(post, postContent, request.getContent(), request.getUserId());
+      searchableChanged = true;
     }
 
     if (request.hasTopicId() && !request.getTopicId().isEmpty()
         && !post.getTopic().getId().equals(request.getTopicId())) {
-      TopicEntity topic = topicRepository.findByIdAndDeletedTopicFalse(request.getTopicId())
-          .orElseThrow(() -> new ResourceNotFoundException("không tìm thấy chủ đề"));
-
-      post.setTopic(topic);
+      post.setTopic(activeTopicReference(request.getTopicId()));
     }
 
     if (request.hasIsPublished() && post.isPublishedPost() != request.getIsPublished()) {
@@ -495,33 +554,13 @@ public class PostServiceImpl implements PostService {
       post.setUpdatedById(request.getUserId());
     }
 
-    postRepository.save(post);
-
-    Set<String> userIdSet = new HashSet<>();
-    userIdSet.add(post.getCreatedById());
-    userIdSet.add(post.getUpdatedById());
-    List<String> userIds = new ArrayList<>(userIdSet);
-
-    UsersPublicResponse usersRes = userClient.getUsersPublicById(userIds);
-
-    Map<String, UserPublicResponse> usersMap = usersRes.getUsersList().stream()
-        .collect(Collectors.toMap(UserPublicResponse::getId, u -> u));
-
-    PostAdminDetailsResponse.Builder postBuilder = PostAdminDetailsResponse.newBuilder().setId(post.getId())
-        .setTitle(post.getTitle()).setSlug(post.getSlug()).setContent(post.getContent())
-        .setTopic(toSimpleTopicResponse(post.getTopic())).setIsPublished(post.isPublishedPost())
-        .setCreatedAt(post.getCreatedAt().toString()).setUpdatedAt(post.getUpdatedAt().toString());
-    if (post.getPublishedAt() != null) {
-      postBuilder.setPublishedAt(post.getPublishedAt().toString());
-    }
-    if (usersMap.containsKey(post.getCreatedById())) {
-      postBuilder.setCreatedBy(toBaseUserResponse(usersMap.get(post.getCreatedById())));
-    }
-    if (usersMap.containsKey(post.getUpdatedById())) {
-      postBuilder.setUpdatedBy(toBaseUserResponse(usersMap.get(post.getUpdatedById())));
+    savePostSlug(post);
+    if (searchableChanged) {
+      refreshSearchVectors(List.of(postContent));
     }
+    postDetailsCache.invalidate(post.getId());
 
-    return postBuilder.build();
+    return toPostAdminDetailsResponse(post, postContent, usersFuture);
   }
 
   @Override
@@ -530,12 +569,14 @@ public class PostServiceImpl implements PostService {
         .orElseThrow(() -> new ResourceNotFoundException("không tìm thấy bài viết"));
 
     post.setDeletedPost(true);
+    post.setDeletedAt(LocalDateTime.now());
 
     if (!post.getUpdatedById().equals(request.getUserId())) {
       post.setUpdatedById(request.getUserId());
     }
 
     postRepository.save(post);
+    postDetailsCache.invalidate(post.getId());
   }
 
   @Override
@@ -546,7 +587,8 @@ public class PostServiceImpl implements PostService {
       throw new ResourceNotFoundException("Có bài viết không tìm thấy");
     }
 
-    postRepository.updateIsDeletedAllById(request.getIdsList(), true, request.getUserId());
+    postRepository.updateIsDeletedAllById(request.getIdsList(), true, LocalDateTime.now(), request.getUserId());
+    postDetailsCache.invalidate(request.getIdsList());
   }
 
   @Override
@@ -555,12 +597,14 @@ public class PostServiceImpl implements PostService {
         .orElseThrow(() -> new ResourceNotFoundException("không tìm thấy bài viết"));
 
     post.setDeletedPost(false);
+    post.setDeletedAt(null);
 
     if (!post.getUpdatedById().equals(request.getUserId())) {
       post.setUpdatedById(request.getUserId());
     }
 
     postRepository.save(post);
+    postDetailsCache.invalidate(post.getId());
   }
 
   @Override
@@ -571,7 +615,8 @@ public class PostServiceImpl implements PostService {
       throw new ResourceNotFoundException("Có bài viết không tìm thấy");
     }
 
-    postRepository.updateIsDeletedAllById(request.getIdsList(), false, request.getUserId());
+    postRepository.updateIsDeletedAllById(request.getIdsList(), false, null, request.getUserId());
+    postDetailsCache.invalidate(request.getIdsList());
   }
 
   @Override
@@ -580,9 +625,7 @@ public class PostServiceImpl implements PostService {
     PostEntity post = postRepository.findByIdAndDeletedPostTrue(postId)
         .orElseThrow(() -> new ResourceNotFoundException("không tìm thấy bài viết"));
 
-    post.getImages().stream().map(ImageEntity::getFileId).forEach(publisher::sendDeleteImage);
-
-    postRepository.delete(post);
+    removePosts(List.of(postId), post.getImages());
   }
 
   @Override
@@ -593,64 +636,519 @@ public class PostServiceImpl implements PostService {
       throw new ResourceNotFoundException("Có bài viết không tìm thấy");
     }
 
-    posts.stream().flatMap(post -> post.getImages().stream()).map(ImageEntity::getFileId)
-        .forEach(publisher::sendDeleteImage);
+    removePosts(postIds, posts.stream().flatMap(post -> post.getImages().stream()).toList());
+  }
+
+  @Override
+  @Transactional
+  public List<String> purgeDeletedPosts(LocalDateTime cutoff, String afterId, int limit) {
+    List<String> postIds = postRepository.lockPurgeCandidates(cutoff, afterId, limit);
+    if (!postIds.isEmpty()) {
+      removePosts(postIds, imageRepository.findByPostIdIn(postIds));
+    }
+    return postIds;
+  }
+
+  private void removePosts(List<String> postIds, List<ImageEntity> images) {
+    imageDedupService.releaseImages(images);
 
-    postRepository.deleteAll(posts);
+    postRepository.deleteAllByIdInBatch(postIds);
+    postDetailsCache.invalidate(postIds);
   }
 
   @Override
   @Transactional
   public PostsAdminResponse getDeletedPosts(GetAllPostsAdminRequest request) {
-    int page = request.getPage() > 0 ? request.getPage() - 1 : 0;
-    int limit = request.getLimit() > 0 ? request.getLimit() : 10;
+    return getPostsAdmin(PostSpecification.isDeleted(), request);
+  }
 
-    String sortField = (request.getSort() != null && !request.getSort().isEmpty()) ? snakeToCamel(request.getSort())
-        : "createdAt";
-    Sort.Direction direction = "asc".equalsIgnoreCase(request.getOrder()) ? Sort.Direction.ASC : Sort.Direction.DESC;
+  @Override
+  @Transactional
+  public PostAdminDetailsResponse getDeletedPostById(String id) {
+    PostEntity post = postRepository.findByIdAndDeletedPostTrue(id)
+        .orElseThrow(() -> new ResourceNotFoundException("không tìm thấy bài viết"));
 
-    Pageable pageable = PageRequest.of(page, limit, Sort.by(direction, sortField));
+    CompletableFuture<UsersPublicResponse> usersFuture = userClient
+        .getUsersPublicByIdAsync(List.of(post.getCreatedById(), post.getUpdatedById()));
 
-    Specification<PostEntity> spec = PostSpecification.isDeleted()
-        .and(PostSpecification.hasTitleLike(request.getSearch()))
-        .and(PostSpecification.hasTopicId(request.getTopicId()))
-        .and(PostSpecification.hasPublished(request.hasIsPublished() ? request.getIsPublished() : null));
+    return toPostAdminDetailsResponse(post, loadContent(post.getId()), usersFuture);
+  }
 
-    Page<PostEntity> postsPage = postRepository.findAll(spec, pageable);
+  private void replaceContent(PostEntity post, PostContentEntity postContent, String content, String userId) {
+    List<ImageSource> sources = InlineImageScanner.scan(content);
+    List<ImageEntity> oldImages = imageRepository.findByPostIdOrderBySortOrderAsc(post.getId());
 
-    List<PostAdminResponse> posts = postsPage.getContent().stream().map(this::toPostAdminResponse).toList();
+    Map<String, ImageEntity> oldImagesById = new HashMap<>();
+    Map<String, ImageEntity> oldImagesByUrl = new HashMap<>();
+    for (ImageEntity oldImage : oldImages) {
+      oldImagesById.put(oldImage.getId(), oldImage);
+      if (oldImage.getUrl() != null) {
+        oldImagesByUrl.putIfAbsent(oldImage.getUrl(), oldImage);
+      }
+    }
 
-    PaginationMetaResponse meta = PaginationMetaResponse.newBuilder().setPage(postsPage.getNumber() + 1)
-        .setLimit(postsPage.getSize()).setTotal((int) postsPage.getTotalElements())
-        .setTotalPages(postsPage.getTotalPages()).setHasPrev(postsPage.hasPrevious()).setHasNext(postsPage.hasNext())
-        .build();
+    Map<ImageSource, String> hashes = hashDataImages(content, sources);
+    Map<String, ImageFileDto> uploaded = imageDedupService.findUploaded(hashes.values());
+
+    int sortOrder = 1;
+    Set<String> usedImageIds = new HashSet<>();
+    List<Base64UploadDto.Base64UploadDtoBuilder> uploads = new ArrayList<>();
+    Map<ImageSource, String> replacements = new HashMap<>();
+    Map<String, String> replacementsByHash = new HashMap<>();
+    String slug = post.getSlug();
+
+    for (ImageSource source : sources) {
+      if (source.isDataImage()) {
+        String contentHash = hashes.get(source);
+
+        if (contentHash != null && replacementsByHash.containsKey(contentHash)) {
+          replacements.put(source, replacementsByHash.get(contentHash));
+          continue;
+        }
+
+        ImageEntity newImage = newDataImage(post, contentHash, sortOrder, uploaded.get(contentHash));
+
+        String replacement;
+        if (newImage.getUrl() != null) {
+          replacement = newImage.getUrl();
+        } else {
+          String fileName = String.format("%s-%s_%d.%s", slug, newImage.getId(), sortOrder, source.extension());
+          uploads.add(Base64UploadDto.builder().imageId(newImage.getId()).fileName(fileName)
+              .folder(imageKitFolder).base64Data(source.base64Data(content)).postId(post.getId())
+              .userId(userId).thumbnail(newImage.isThumbnailImage()));
+          replacement = InlineImageScanner.placeholder(newImage.getId());
+        }
+
+        replacements.put(source, replacement);
+        if (contentHash != null) {
+          replacementsByHash.put(contentHash, replacement);
+        }
+        usedImageIds.add(newImage.getId());
+      } else {
+        ImageEntity existing = source.isPlaceholder(content)
+            ? oldImagesById.get(source.placeholderImageId(content))
+            : oldImagesByUrl.get(source.src(content));
+        if (existing == null || !usedImageIds.add(existing.getId())) {
+          continue;
+        }
+        if (source.isPlaceholder(content) && existing.getUrl() != null) {
+          replacements.put(source, existing.getUrl());
+        }
+        existing.setSortOrder(sortOrder);
+        existing.setThumbnailImage(sortOrder == 1);
+        imageRepository.save(existing);
+      }
+
+      sortOrder++;
+    }
 
-    return PostsAdminResponse.newBuilder().addAllPosts(posts).setMeta(meta).build();
+    postContent.setContent(InlineImageScanner.rewrite(content, sources, replacements::get));
+    markEdited(postContent);
+    postContentRepository.save(postContent);
+
+    List<ImageEntity> removedImages = oldImages.stream().filter(image -> !usedImageIds.contains(image.getId()))
+        .toList();
+    imageRepository.deleteAll(removedImages);
+    imageDedupService.releaseImages(removedImages);
+
+    sendUploads(List.of(new PostUploads(post.getId(), userId, hashes.size(), uploads, postContent)));
   }
 
-  @Override
-  @Transactional
-  public PostAdminDetailsResponse getDeletedPostById(String id) {
-    PostEntity post = postRepository.findByIdAndDeletedPostTrue(id)
-        .orElseThrow(() -> new ResourceNotFoundException("không tìm thấy bài viết"));
+  private void applyContentEdits(PostEntity post, PostContentEntity postContent, List<ContentEdit> edits,
+      long baseRevision, String userId) {
+    Map<String, Long> imagePatches = imagePatches(postContent);
+    Map<String, String> patchedUrls = patchedImageUrls(imagePatches.keySet());
+    String base = contentAt(postContent, baseRevision, imagePatches, patchedUrls);
+    List<ContentEdit> sorted = edits.stream().sorted(Comparator.comparingInt(ContentEdit::getStart)).toList();
+
+    StringBuilder patched = new StringBuilder(base.length());
+    int last = 0;
+    for (ContentEdit edit : sorted) {
+      if (edit.getStart() < last || edit.getEnd() < edit.getStart() || edit.getEnd() > base.length()
+          || splitsSurrogatePair(base, edit.getStart()) || splitsSurrogatePair(base, edit.getEnd())) {
+        throw new InvalidArgumentException("bản vá nội dung không hợp lệ");
+      }
+      patched.append(base, last, edit.getStart()).append(edit.getText());
+      last = edit.getEnd();
+    }
+    String content = patched.append(base, last, base.length()).toString();
 
-    Set<String> userIdSet = new HashSet<>();
-    userIdSet.add(post.getCreatedById());
-    userIdSet.add(post.getUpdatedById());
-    List<String> userIds = new ArrayList<>(userIdSet);
+    int start = sorted.get(0).getStart();
+    int baseEnd = sorted.get(sorted.size() - 1).getEnd();
+    int end = baseEnd + content.length() - base.length();
 
-    UsersPublicResponse usersRes = userClient.getUsersPublicById(userIds);
+    if (changesImages(base, content, start, baseEnd, end)) {
+      replaceContent(post, postContent, content, userId);
+      return;
+    }
 
-    Map<String, UserPublicResponse> usersMap = usersRes.getUsersList().stream()
-        .collect(Collectors.toMap(UserPublicResponse::getId, u -> u));
+    postContent.setContent(InlineImageScanner.replacePlaceholders(content, patchedUrls));
+    markEdited(postContent);
+    postContentRepository.save(postContent);
+  }
+
+  private static void markEdited(PostContentEntity postContent) {
+    postContent.setRevision(postContent.getRevision() + 1);
+    postContent.setEditRevision(postContent.getRevision());
+    postContent.setImagePatches(null);
+  }
+
+  private static boolean acceptsBaseRevision(PostContentEntity postContent, long baseRevision) {
+    long editRevision = postContent.getEditRevision() != null ? postContent.getEditRevision()
+        : postContent.getRevision();
+    return baseRevision >= editRevision && baseRevision <= postContent.getRevision();
+  }
+
+  private static boolean splitsSurrogatePair(String text, int offset) {
+    return offset > 0 && offset < text.length() && Character.isHighSurrogate(text.charAt(offset - 1))
+        && Character.isLowSurrogate(text.charAt(offset));
+  }
+
+  private static Map<String, Long> imagePatches(PostContentEntity postContent) {
+    String imagePatches = postContent.getImagePatches();
+    if (imagePatches == null || imagePatches.isEmpty()) {
+      return Map.of();
+    }
+
+    Map<String, Long> revisionsByImageId = new HashMap<>();
+    for (String patch : imagePatches.split(",")) {
+      int separator = patch.lastIndexOf(':');
+      revisionsByImageId.put(patch.substring(0, separator), Long.parseLong(patch.substring(separator + 1)));
+    }
+    return revisionsByImageId;
+  }
+
+  private Map<String, String> patchedImageUrls(Collection<String> imageIds) {
+    if (imageIds.isEmpty()) {
+      return Map.of();
+    }
+
+    Map<String, String> urlsByImageId = new HashMap<>();
+    for (ImageEntity image : imageRepository.findAllById(imageIds)) {
+      if (image.getUrl() != null) {
+        urlsByImageId.put(image.getId(), image.getUrl());
+      }
+    }
+    return urlsByImageId;
+  }
+
+  // Nội dung mà client thấy ở baseRevision: ảnh được vá sau phiên bản đó vẫn còn là placeholder
+  private static String contentAt(PostContentEntity postContent, long baseRevision, Map<String, Long> imagePatches,
+      Map<String, String> patchedUrls) {
+    Map<String, String> imageIdsByUrl = new HashMap<>();
+    patchedUrls.forEach((imageId, url) -> {
+      if (imagePatches.get(imageId) > baseRevision) {
+        imageIdsByUrl.put(url, imageId);
+      }
+    });
+    if (imageIdsByUrl.isEmpty()) {
+      return postContent.getContent();
+    }
+    return InlineImageScanner.restorePlaceholders(postContent.getContent(), imageIdsByUrl);
+  }
+
+  private boolean changesImages(String base, String content, int start, int baseEnd, int end) {
+    List<ImageSource> before = InlineImageScanner.scan(base, Math.max(base.lastIndexOf('<', start), 0), baseEnd);
+    List<ImageSource> after = InlineImageScanner.scan(content, Math.max(content.lastIndexOf('<', start), 0), end);
+    if (before.size() != after.size()) {
+      return true;
+    }
+    for (int i = 0; i < after.size(); i++) {
+      if (after.get(i).isDataImage() || !after.get(i).src(content).equals(before.get(i).src(base))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void saveTopicSlug(TopicEntity topic, String duplicateMessage) {
+    try {
+      topicRepository.saveAndFlush(topic);
+    } catch (DataIntegrityViolationException e) {
+      if (violates(e, TOPIC_SLUG_CONSTRAINT)) {
+        throw new AlreadyExistsException(duplicateMessage);
+      }
+      throw e;
+    }
+    afterCommit(() -> slugFilter.add(SlugFilter.Table.TOPICS, topic.getSlug()));
+  }
+
+  private void savePostSlug(PostEntity post) {
+    try {
+      postRepository.saveAndFlush(post);
+    } catch (DataIntegrityViolationException e) {
+      if (violates(e, POST_SLUG_CONSTRAINT)) {
+        throw new AlreadyExistsException("tiêu đề bài viết đã tồn tại");
+      }
+      throw e;
+    }
+    afterCommit(() -> slugFilter.add(SlugFilter.Table.POSTS, post.getSlug()));
+  }
+
+  private static boolean violates(DataIntegrityViolationException e, String constraint) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof ConstraintViolationException violation) {
+        return constraint.equalsIgnoreCase(violation.getConstraintName());
+      }
+    }
+    return false;
+  }
+
+  private TopicEntity activeTopicReference(String topicId) {
+    TopicEntity topic = topicCatalog.findActive(topicId)
+        .orElseThrow(() -> new ResourceNotFoundException("không tìm thấy chủ đề"));
+    return topicRepository.getReferenceById(topic.getId());
+  }
+
+  private Map<Integer, String> insertPosts(CreatePostsRequest request, List<Integer> indexes, String[] slugs) {
+    Map<Integer, PostEntity> posts = new HashMap<>();
+    Map<Integer, Map<ImageSource, String>> hashesByIndex = new HashMap<>();
+    List<String> allHashes = new ArrayList<>();
+
+    for (int i : indexes) {
+      CreatePostRequest item = request.getPosts(i);
+      LocalDateTime publishedAt = item.getIsPublished() ? LocalDateTime.now() : null;
+
+      PostEntity post = PostEntity.builder().title(item.getTitle()).slug(slugs[i])
+          .topic(topicRepository.getReferenceById(item.getTopicId())).publishedPost(item.getIsPublished())
+          .publishedAt(publishedAt).createdById(item.getUserId()).updatedById(item.getUserId()).build();
+      postRepository.save(post);
+      posts.put(i, post);
+
+      Map<ImageSource, String> hashes = hashDataImages(item.getContent(), InlineImageScanner.scan(item.getContent()));
+      hashesByIndex.put(i, hashes);
+      allHashes.addAll(hashes.values());
+    }
 
+    Map<String, ImageFileDto> uploaded = imageDedupService.findUploaded(allHashes);
+
+    Map<Integer, String> postIds = new HashMap<>();
+    List<PostUploads> uploads = new ArrayList<>();
+    for (int i : indexes) {
+      CreatePostRequest item = request.getPosts(i);
+      PostEntity post = posts.get(i);
+      uploads.add(attachInlineImages(post, item.getContent(), hashesByIndex.get(i), uploaded, item.getUserId()));
+      postIds.put(i, post.getId());
+    }
+
+    postRepository.flush();
+    sendUploads(uploads);
+    refreshSearchVectors(uploads.stream().map(PostUploads::getContent).toList());
+    afterCommit(() -> posts.values().forEach(post -> slugFilter.add(SlugFilter.Table.POSTS, post.getSlug())));
+
+    return postIds;
+  }
+
+  private Map<ImageSource, String> hashDataImages(String content, List<ImageSource> sources) {
+    Map<ImageSource, String> hashes = new LinkedHashMap<>();
+    for (ImageSource source : sources) {
+      if (source.isDataImage()) {
+        hashes.put(source, ImageHashUtil.sha256OfBase64(source.base64Data(content)));
+      }
+    }
+    return hashes;
+  }
+
+  private PostUploads attachInlineImages(PostEntity post, String content, Map<ImageSource, String> hashes,
+      Map<String, ImageFileDto> uploaded, String userId) {
+    List<Base64UploadDto.Base64UploadDtoBuilder> uploads = new ArrayList<>();
+    Map<ImageSource, String> replacements = new HashMap<>();
+    Map<String, String> replacementsByHash = new HashMap<>();
+    int sortOrder = 1;
+    for (Map.Entry<ImageSource, String> entry : hashes.entrySet()) {
+      ImageSource source = entry.getKey();
+      String contentHash = entry.getValue();
+      if (contentHash != null && replacementsByHash.containsKey(contentHash)) {
+        replacements.put(source, replacementsByHash.get(contentHash));
+        continue;
+      }
+
+      ImageEntity image = newDataImage(post, contentHash, sortOrder, uploaded.get(contentHash));
+
+      String replacement;
+      if (image.getUrl() != null) {
+        replacement = image.getUrl();
+      } else {
+        String fileName = String.format("%s-%s_%d.%s", post.getSlug(), image.getId(), sortOrder, source.extension());
+        uploads.add(Base64UploadDto.builder().imageId(image.getId()).fileName(fileName).folder(imageKitFolder)
+            .base64Data(source.base64Data(content)).postId(post.getId()).userId(userId)
+            .thumbnail(image.isThumbnailImage()));
+        replacement = InlineImageScanner.placeholder(image.getId());
+      }
+
+      replacements.put(source, replacement);
+      if (contentHash != null) {
+        replacementsByHash.put(contentHash, replacement);
+      }
+      sortOrder++;
+    }
+
+    PostContentEntity postContent = PostContentEntity.builder().post(post)
+        .content(InlineImageScanner.rewrite(content, new ArrayList<>(hashes.keySet()), replacements::get)).build();
+    postContentRepository.save(postContent);
+    return new PostUploads(post.getId(), userId, hashes.size(), uploads, postContent);
+  }
+
+  private ImageEntity newDataImage(PostEntity post, String contentHash, int sortOrder, ImageFileDto uploaded) {
+    ImageEntity image = ImageEntity.builder().sortOrder(sortOrder).thumbnailImage(sortOrder == 1).post(post)
+        .contentHash(contentHash).fileId(uploaded != null ? uploaded.getFileId() : null)
+        .url(uploaded != null ? uploaded.getUrl() : null)
+        .thumbnailFileId(uploaded != null ? uploaded.getThumbnailFileId() : null)
+        .thumbnailUrl(uploaded != null ? uploaded.getThumbnailUrl() : null).build();
+    imageRepository.save(image);
+    return image;
+  }
+
+  private void sendUploads(List<PostUploads> batch) {
+    Map<String, Collection<String>> pendingImages = new HashMap<>();
+    List<Base64UploadDto> messages = new ArrayList<>();
+    long requestedAt = System.currentTimeMillis();
+    for (PostUploads postUploads : batch) {
+      List<Base64UploadDto.Base64UploadDtoBuilder> uploads = postUploads.getUploads();
+
+      if (uploads.isEmpty()) {
+        if (postUploads.getDataImageCount() > 0) {
+          publisher.sendUploadedAllImages(ImageUploadedDto.builder().service("post").userId(postUploads.getUserId())
+              .postId(postUploads.getPostId()).build());
+        }
+        continue;
+      }
+
+      List<String> imageIds = new ArrayList<>();
+      for (Base64UploadDto.Base64UploadDtoBuilder upload : uploads) {
+        Base64UploadDto message = upload.totalImages(uploads.size()).requestedAt(requestedAt).build();
+        imageIds.add(message.getImageId());
+        messages.add(message);
+      }
+      pendingImages.put(redisService.setKey(postUploads.getPostId(), ImagePatchBuffer.PENDING_IMAGES_KEY_TYPE),
+          imageIds);
+    }
+
+    if (!pendingImages.isEmpty()) {
+      afterCommit(() -> {
+        try {
+          redisService.addHashFields(pendingImages, pendingImagesTtlSeconds, TimeUnit.SECONDS);
+        } catch (RuntimeException e) {
+          log.warn("Không ghi được danh sách ảnh chờ tải lên vào Redis: {}", e.getMessage());
+        }
+      });
+    }
+    publisher.sendUploadImages(messages);
+  }
+
+  private void afterCommit(Runnable action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          action.run();
+        }
+      });
+    } else {
+      action.run();
+    }
+  }
+
+  private PostContentEntity loadContent(String postId) {
+    return postContentRepository.findById(postId).orElseGet(() -> PostContentEntity.builder().content("").build());
+  }
+
+  private void refreshSearchVectors(List<PostContentEntity> contents) {
+    String[] ids = contents.stream().map(content -> content.getPost().getId()).toArray(String[]::new);
+    String[] texts = contents.stream().map(PostContentEntity::getContent).toArray(String[]::new);
+    postRepository.updateSearchVectors(ids, texts);
+  }
+
+  private PostsAdminResponse getPostsAdmin(Specification<PostEntity> baseSpec, GetAllPostsAdminRequest request) {
+    int page = request.getPage() > 0 ? request.getPage() - 1 : 0;
+    int limit = request.getLimit() > 0 ? request.getLimit() : 10;
+
+    boolean explicitSort = request.getSort() != null && !request.getSort().isEmpty();
+    String sortField = explicitSort ? snakeToCamel(request.getSort()) : "createdAt";
+    Sort.Direction direction = "asc".equalsIgnoreCase(request.getOrder()) ? Sort.Direction.ASC : Sort.Direction.DESC;
+    Sort sort = Sort.by(direction, sortField).and(Sort.by(direction, "id"));
+
+    Specification<PostEntity> spec = buildPostsSpec(baseSpec, request);
+
+    boolean keyset = !request.getCursor().isEmpty();
+    boolean withTotal = request.hasWithTotal() ? request.getWithTotal() : !keyset;
+    String search = request.getSearch().trim();
+    String rankBySearch = !keyset && !explicitSort && search.length() >= PostSpecification.MIN_FULL_TEXT_LENGTH
+        ? search
+        : null;
+
+    PaginationMetaResponse.Builder meta = PaginationMetaResponse.newBuilder().setLimit(limit);
+    List<PostSummaryDto> rows;
+    if (keyset) {
+      PageCursor cursor = PageCursor.decode(request.getCursor());
+      if (!cursor.getSortField().equals(sortField) || !cursor.getDirection().equals(direction.name())) {
+        throw new InvalidArgumentException("cursor không khớp với kiểu sắp xếp");
+      }
+      Specification<PostEntity> seekSpec = spec.and(PostSpecification.seekAfter(sortField, direction.isAscending(),
+          parseCursorValue(sortField, cursor.getValue()), cursor.getId()));
+      rows = postRepository.findSummaries(seekSpec, sort, null, 0, limit + 1);
+      meta.setHasPrev(true);
+    } else {
+      rows = postRepository.findSummaries(spec, sort, rankBySearch, (long) page * limit, limit + 1);
+      meta.setPage(page + 1).setHasPrev(page > 0);
+    }
+
+    boolean hasNext = rows.size() > limit;
+    if (hasNext) {
+      rows = rows.subList(0, limit);
+    }
+    meta.setHasNext(hasNext);
+
+    if (withTotal) {
+      long total = postRepository.count(spec);
+      meta.setTotal((int) total).setTotalPages((int) ((total + limit - 1) / limit));
+    }
+
+    List<PostAdminResponse> posts = rows.stream().map(PostServiceImpl::toPostAdminResponse).toList();
+    PostsAdminResponse.Builder responseBuilder = PostsAdminResponse.newBuilder().addAllPosts(posts)
+        .setMeta(meta);
+
+    if (hasNext && rankBySearch == null && KEYSET_SORT_FIELDS.containsKey(sortField)) {
+      PostSummaryDto last = rows.get(rows.size() - 1);
+      responseBuilder.setNextCursor(
+          new PageCursor(sortField, direction.name(), last.getId(), String.valueOf(last.getSortValue())).encode());
+    }
+
+    return responseBuilder.build();
+  }
+
+  private Specification<PostEntity> buildPostsSpec(Specification<PostEntity> baseSpec,
+      GetAllPostsAdminRequest request) {
+    return baseSpec
+        .and(PostSpecification.matchesSearch(request.getSearch()))
+        .and(PostSpecification.hasTopicId(request.getTopicId()))
+        .and(PostSpecification.hasPublished(request.hasIsPublished() ? request.getIsPublished() : null));
+  }
+
+  private Comparable<?> parseCursorValue(String sortField, String value) {
+    Class<?> type = KEYSET_SORT_FIELDS.get(sortField);
+    if (type == null) {
+      throw new InvalidArgumentException("không hỗ trợ cursor cho trường sắp xếp " + sortField);
+    }
+    try {
+      return type == LocalDateTime.class ? LocalDateTime.parse(value) : value;
+    } catch (DateTimeParseException e) {
+      throw new InvalidArgumentException("cursor không hợp lệ");
+    }
+  }
+
+  private PostAdminDetailsResponse toPostAdminDetailsResponse(PostEntity post, PostContentEntity postContent,
+      CompletableFuture<UsersPublicResponse> usersFuture) {
     PostAdminDetailsResponse.Builder postBuilder = PostAdminDetailsResponse.newBuilder().setId(post.getId())
-        .setTitle(post.getTitle()).setSlug(post.getSlug()).setContent(post.getContent())
+        .setTitle(post.getTitle()).setSlug(post.getSlug()).setContent(postContent.getContent())
+        .setRevision(postContent.getRevision())
         .setTopic(toSimpleTopicResponse(post.getTopic())).setIsPublished(post.isPublishedPost())
         .setCreatedAt(post.getCreatedAt().toString()).setUpdatedAt(post.getUpdatedAt().toString());
     if (post.getPublishedAt() != null) {
       postBuilder.setPublishedAt(post.getPublishedAt().toString());
     }
+
+    Map<String, UserPublicResponse> usersMap = awaitUsers(usersFuture);
     if (usersMap.containsKey(post.getCreatedById())) {
       postBuilder.setCreatedBy(toBaseUserResponse(usersMap.get(post.getCreatedById())));
     }
@@ -661,14 +1159,20 @@ public class PostServiceImpl implements PostService {
     return postBuilder.build();
   }
 
-  private String getExtension(String base64Src) {
-    String mimeType = base64Src.substring(base64Src.indexOf(":") + 1, base64Src.indexOf(";"));
-    String ext = mimeType.substring(mimeType.indexOf("/") + 1);
-
-    return ext;
+  private Map<String, UserPublicResponse> awaitUsers(CompletableFuture<UsersPublicResponse> usersFuture) {
+    try {
+      return usersFuture.get(userLookupTimeoutMs, TimeUnit.MILLISECONDS).getUsersList().stream()
+          .collect(Collectors.toMap(UserPublicResponse::getId, u -> u, (a, b) -> a));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Map.of();
+    } catch (ExecutionException | TimeoutException e) {
+      log.warn("Lấy thông tin người dùng quá thời gian chờ, bỏ qua created_by/updated_by: {}", e.toString());
+      return Map.of();
+    }
   }
 
-  private String snakeToCamel(String field) {
+  static String snakeToCamel(String field) {
     StringBuilder result = new StringBuilder();
     boolean upperNext = false;
 
@@ -689,23 +1193,20 @@ public class PostServiceImpl implements PostService {
         .setIsDeleted(topic.isDeletedTopic()).build();
   }
 
-  private PostAdminResponse toPostAdminResponse(PostEntity post) {
-    TopicResponse topic = TopicResponse.newBuilder().setId(post.getTopic().getId()).setName(post.getTopic().getName())
-        .setSlug(post.getTopic().getSlug()).build();
-
-    ImageEntity thumb = post.getImages().stream().filter(ImageEntity::isThumbnailImage).findFirst().orElse(
-        post.getImages().stream().sorted(Comparator.comparingInt(ImageEntity::getSortOrder)).findFirst().orElse(null));
+  static PostAdminResponse toPostAdminResponse(PostSummaryDto post) {
+    TopicResponse topic = TopicResponse.newBuilder().setId(post.getTopicId()).setName(post.getTopicName())
+        .setSlug(post.getTopicSlug()).build();
 
-    SimpleImageResponse thumbResponse = thumb != null
-        ? SimpleImageResponse.newBuilder().setId(thumb.getId()).setUrl(thumb.getUrl() != null ? thumb.getUrl() : "")
-            .build()
+    SimpleImageResponse thumbResponse = post.getThumbnailId() != null
+        ? SimpleImageResponse.newBuilder().setId(post.getThumbnailId())
+            .setUrl(post.getThumbnailUrl() != null ? post.getThumbnailUrl() : "").build()
         : SimpleImageResponse.newBuilder().build();
 
     return PostAdminResponse.newBuilder().setId(post.getId()).setTitle(post.getTitle()).setTopic(topic)
         .setThumbnail(thumbResponse).build();
   }
 
-  private BaseUserResponse toBaseUserResponse(UserPublicResponse u) {
+  static BaseUserResponse toBaseUserResponse(UserPublicResponse u) {
     return BaseUserResponse.newBuilder().setId(u.getId()).setUsername(u.getUsername())
         .setProfile(BaseProfileResponse.newBuilder().setId(u.getProfile().getId())
             .setFirstName(u.getProfile().getFirstName()).setLastName(u.getProfile().getLastName()).build())
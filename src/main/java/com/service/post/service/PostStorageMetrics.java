@@ -0,0 +1,70 @@
+package com.service.post.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+public class PostStorageMetrics {
+  private static final List<String> TABLES = List.of("posts", "post_contents");
+
+  private final JdbcTemplate jdbcTemplate;
+  private final Map<String, TableStats> stats = new ConcurrentHashMap<>();
+
+  @AllArgsConstructor
+  @Getter
+  private static class TableStats {
+    private final long heapBytes;
+    private final long totalBytes;
+    private final long liveRows;
+    private final long blocksHit;
+    private final long blocksRead;
+  }
+
+  public PostStorageMetrics(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+    this.jdbcTemplate = jdbcTemplate;
+
+    for (String table : TABLES) {
+      Gauge.builder("post.storage.table.size", stats, s -> s.containsKey(table) ? s.get(table).getTotalBytes() : 0)
+          .baseUnit("bytes").tag("table", table).register(meterRegistry);
+      Gauge.builder("post.storage.row.size", stats, s -> {
+        TableStats t = s.get(table);
+        return t != null && t.getLiveRows() > 0 ? (double) t.getHeapBytes() / t.getLiveRows() : 0;
+      }).baseUnit("bytes").tag("table", table).register(meterRegistry);
+      Gauge.builder("post.storage.cache.hit.ratio", stats, s -> {
+        TableStats t = s.get(table);
+        long total = t != null ? t.getBlocksHit() + t.getBlocksRead() : 0;
+        return total > 0 ? (double) t.getBlocksHit() / total : 0;
+      }).tag("table", table).register(meterRegistry);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${spring.post.storage-metrics.refresh-interval-ms:60000}")
+  public void refresh() {
+    try {
+      jdbcTemplate.query("SELECT s.relname, pg_relation_size(s.relid) AS heap_bytes, "
+          + "pg_total_relation_size(s.relid) AS total_bytes, s.n_live_tup, "
+          + "coalesce(io.heap_blks_hit, 0) AS blocks_hit, coalesce(io.heap_blks_read, 0) AS blocks_read "
+          + "FROM pg_stat_user_tables s JOIN pg_statio_user_tables io ON io.relid = s.relid "
+          + "WHERE s.schemaname = current_schema() AND s.relname IN ('posts', 'post_contents')",
+          rs -> {
+            stats.put(rs.getString("relname"), new TableStats(rs.getLong("heap_bytes"), rs.getLong("total_bytes"),
+                rs.getLong("n_live_tup"), rs.getLong("blocks_hit"), rs.getLong("blocks_read")));
+          });
+    } catch (DataAccessException e) {
+      log.warn("Không đọc được thống kê lưu trữ bài viết: {}", e.getMessage());
+    }
+  }
+}
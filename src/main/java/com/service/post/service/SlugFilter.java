@@ -0,0 +1,252 @@
+package com.service.post.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+import com.google.common.hash.Funnels;
+import com.service.post.repository.PostRepository;
+import com.service.post.repository.TopicRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+public class SlugFilter {
+  public enum Table {
+    POSTS, TOPICS
+  }
+
+  private static final Funnel<CharSequence> FUNNEL = Funnels.stringFunnel(StandardCharsets.UTF_8);
+  private static final int SNAPSHOT_FORMAT = 1;
+  private static final Duration WATERMARK_OVERLAP = Duration.ofMinutes(1);
+
+  private final PostRepository postRepository;
+  private final TopicRepository topicRepository;
+  private final long expectedInsertions;
+  private final double fpp;
+  private final Path snapshotDir;
+
+  private final Map<Table, SlugIndex> indexes = new EnumMap<>(Table.class);
+
+  private class SlugIndex {
+    private final Table table;
+    private final Counter negatives;
+    private final Counter truePositives;
+    private final Counter falsePositives;
+
+    private volatile BloomFilter<CharSequence> filter;
+    private volatile long capacity;
+    private volatile LocalDateTime watermark;
+
+    SlugIndex(Table table, MeterRegistry meterRegistry) {
+      this.table = table;
+      String tag = table.name().toLowerCase();
+      this.negatives = Counter.builder("slug.filter.checks").tag("table", tag).tag("result", "negative")
+          .register(meterRegistry);
+      this.truePositives = Counter.builder("slug.filter.checks").tag("table", tag).tag("result", "true_positive")
+          .register(meterRegistry);
+      this.falsePositives = Counter.builder("slug.filter.checks").tag("table", tag).tag("result", "false_positive")
+          .register(meterRegistry);
+
+      Gauge.builder("slug.filter.expected.fpp", this, index -> index.filter != null ? index.filter.expectedFpp() : 0)
+          .tag("table", tag).register(meterRegistry);
+      Gauge.builder("slug.filter.elements",
+          this, index -> index.filter != null ? index.filter.approximateElementCount() : 0).tag("table", tag)
+          .register(meterRegistry);
+      Gauge.builder("slug.filter.memory", this, index -> index.filter != null ? bitSize(index.capacity) / 8.0 : 0)
+          .baseUnit("bytes").tag("table", tag).register(meterRegistry);
+    }
+  }
+
+  public SlugFilter(PostRepository postRepository, TopicRepository topicRepository, MeterRegistry meterRegistry,
+      @Value("${spring.post.slug-filter.expected-insertions:1000000}") long expectedInsertions,
+      @Value("${spring.post.slug-filter.fpp:0.01}") double fpp,
+      @Value("${spring.post.slug-filter.snapshot-dir:${java.io.tmpdir}/post-service}") String snapshotDir) {
+    this.postRepository = postRepository;
+    this.topicRepository = topicRepository;
+    this.expectedInsertions = expectedInsertions;
+    this.fpp = fpp;
+    this.snapshotDir = Path.of(snapshotDir);
+
+    for (Table table : Table.values()) {
+      indexes.put(table, new SlugIndex(table, meterRegistry));
+    }
+  }
+
+  // Bộ lọc nằm riêng trên từng node và chỉ làm mới theo refresh-interval-ms, nên slug vừa tạo ở node khác có thể
+  // bị báo là chưa tồn tại; ràng buộc unique trong DB luôn là kiểm tra cuối cùng khi lưu.
+  public boolean exists(Table table, String slug, Predicate<String> dbCheck) {
+    SlugIndex index = indexes.get(table);
+    BloomFilter<CharSequence> filter = index.filter;
+    if (filter != null && !filter.mightContain(slug)) {
+      index.negatives.increment();
+      return false;
+    }
+
+    boolean exists = dbCheck.test(slug);
+    if (filter != null) {
+      (exists ? index.truePositives : index.falsePositives).increment();
+    }
+    return exists;
+  }
+
+  public Set<String> existing(Table table, Collection<String> slugs,
+      Function<Collection<String>, Collection<String>> dbLookup) {
+    SlugIndex index = indexes.get(table);
+    BloomFilter<CharSequence> filter = index.filter;
+
+    List<String> candidates = new ArrayList<>();
+    for (String slug : slugs) {
+      if (filter == null || filter.mightContain(slug)) {
+        candidates.add(slug);
+      }
+    }
+    if (filter != null) {
+      index.negatives.increment(slugs.size() - candidates.size());
+    }
+    if (candidates.isEmpty()) {
+      return Set.of();
+    }
+
+    Set<String> existing = new HashSet<>(dbLookup.apply(candidates));
+    if (filter != null) {
+      index.truePositives.increment(existing.size());
+      index.falsePositives.increment(candidates.size() - existing.size());
+    }
+    return existing;
+  }
+
+  public void add(Table table, String slug) {
+    BloomFilter<CharSequence> filter = indexes.get(table).filter;
+    if (filter != null) {
+      filter.put(slug);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${spring.post.slug-filter.refresh-interval-ms:60000}")
+  public void refresh() {
+    for (SlugIndex index : indexes.values()) {
+      try {
+        refresh(index);
+      } catch (RuntimeException e) {
+        log.warn("Làm mới bộ lọc slug {} thất bại: {}", index.table, e.getMessage());
+      }
+    }
+  }
+
+  private void refresh(SlugIndex index) {
+    if (index.filter == null) {
+      loadSnapshot(index);
+    }
+
+    if (index.filter == null || index.filter.approximateElementCount() > index.capacity) {
+      rebuild(index);
+      writeSnapshot(index);
+      return;
+    }
+
+    LocalDateTime nextWatermark = LocalDateTime.now().minus(WATERMARK_OVERLAP);
+    List<String> slugs = index.table == Table.POSTS ? postRepository.findSlugsUpdatedAfter(index.watermark)
+        : topicRepository.findSlugsUpdatedAfter(index.watermark);
+    slugs.forEach(index.filter::put);
+    index.watermark = nextWatermark;
+
+    if (!slugs.isEmpty()) {
+      writeSnapshot(index);
+    }
+  }
+
+  private void rebuild(SlugIndex index) {
+    LocalDateTime watermark = LocalDateTime.now().minus(WATERMARK_OVERLAP);
+    List<String> slugs = index.table == Table.POSTS ? postRepository.findAllSlugs() : topicRepository.findAllSlugs();
+
+    long capacity = Math.max(expectedInsertions, slugs.size() * 2L);
+    BloomFilter<CharSequence> filter = BloomFilter.create(FUNNEL, capacity, fpp);
+    slugs.forEach(filter::put);
+
+    index.capacity = capacity;
+    index.watermark = watermark;
+    index.filter = filter;
+    log.info("Đã dựng bộ lọc slug {} với {} slug", index.table, slugs.size());
+  }
+
+  private void loadSnapshot(SlugIndex index) {
+    Path file = snapshotFile(index.table);
+    if (!Files.exists(file)) {
+      return;
+    }
+
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+      DataInputStream data = new DataInputStream(in);
+      if (data.readInt() != SNAPSHOT_FORMAT) {
+        return;
+      }
+      long capacity = data.readLong();
+      LocalDateTime watermark = LocalDateTime.parse(data.readUTF());
+      BloomFilter<CharSequence> filter = BloomFilter.readFrom(in, FUNNEL);
+
+      index.capacity = capacity;
+      index.watermark = watermark;
+      index.filter = filter;
+      log.info("Đã nạp bộ lọc slug {} từ bản chụp, mốc {}", index.table, watermark);
+    } catch (IOException | RuntimeException e) {
+      log.warn("Không đọc được bản chụp bộ lọc slug {}: {}", index.table, e.getMessage());
+    }
+  }
+
+  private void writeSnapshot(SlugIndex index) {
+    Path file = snapshotFile(index.table);
+    try {
+      Files.createDirectories(snapshotDir);
+      Path tmp = Files.createTempFile(snapshotDir, file.getFileName().toString(), ".tmp");
+      try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(SNAPSHOT_FORMAT);
+        data.writeLong(index.capacity);
+        data.writeUTF(index.watermark.toString());
+        data.flush();
+        index.filter.writeTo(out);
+      }
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      log.warn("Không ghi được bản chụp bộ lọc slug {}: {}", index.table, e.getMessage());
+    }
+  }
+
+  private Path snapshotFile(Table table) {
+    return snapshotDir.resolve("slug-filter-" + table.name().toLowerCase() + ".bin");
+  }
+
+  private long bitSize(long capacity) {
+    return (long) Math.ceil(-capacity * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+  }
+}
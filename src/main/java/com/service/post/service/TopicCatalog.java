@@ -0,0 +1,163 @@
+package com.service.post.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.service.post.TopicResponse;
+import com.service.post.TopicsResponse;
+import com.service.post.entity.TopicEntity;
+import com.service.post.redis.RedisService;
+import com.service.post.repository.TopicRepository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+public class TopicCatalog implements MessageListener {
+  public static final String CHANNEL = "post-service:topic-catalog";
+
+  private static final String VERSION_KEY_TYPE = ":topic-version";
+
+  private final TopicRepository topicRepository;
+  private final RedisService redisService;
+  private final long versionCheckMs;
+
+  private final AtomicLong knownVersion = new AtomicLong();
+  private volatile long lastVersionCheck;
+  private volatile boolean dirty;
+  private volatile Snapshot snapshot;
+
+  public TopicCatalog(TopicRepository topicRepository, RedisService redisService,
+      @Value("${spring.post.topic-catalog.version-check-ms:30000}") long versionCheckMs) {
+    this.topicRepository = topicRepository;
+    this.redisService = redisService;
+    this.versionCheckMs = versionCheckMs;
+  }
+
+  @AllArgsConstructor
+  @Getter
+  private static class Snapshot {
+    private final long version;
+    private final List<TopicEntity> topics;
+    private final Map<String, TopicEntity> topicsById;
+    private final TopicsResponse topicsResponse;
+  }
+
+  public TopicsResponse topicsResponse() {
+    return current().getTopicsResponse();
+  }
+
+  public List<TopicEntity> activeTopics() {
+    return current().getTopics();
+  }
+
+  public Optional<TopicEntity> findActive(String topicId) {
+    return Optional.ofNullable(current().getTopicsById().get(topicId));
+  }
+
+  public long version() {
+    return current().getVersion();
+  }
+
+  public void topicsChanged() {
+    Runnable bumpVersion = () -> {
+      try {
+        long version = redisService.increment(versionKey());
+        knownVersion.accumulateAndGet(version, Math::max);
+        redisService.publish(CHANNEL, String.valueOf(version));
+      } catch (RuntimeException e) {
+        log.warn("Không phát được phiên bản danh mục chủ đề, nạp lại cục bộ: {}", e.getMessage());
+        lastVersionCheck = 0;
+        dirty = true;
+      }
+    };
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          bumpVersion.run();
+        }
+      });
+    } else {
+      bumpVersion.run();
+    }
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    try {
+      long version = Long.parseLong(new String(message.getBody(), StandardCharsets.UTF_8));
+      knownVersion.accumulateAndGet(version, Math::max);
+    } catch (NumberFormatException e) {
+      log.warn("Thông điệp phiên bản danh mục chủ đề không hợp lệ");
+    }
+  }
+
+  private Snapshot current() {
+    long now = System.currentTimeMillis();
+    if (now - lastVersionCheck > versionCheckMs) {
+      lastVersionCheck = now;
+      knownVersion.accumulateAndGet(readVersion(), Math::max);
+    }
+
+    Snapshot current = snapshot;
+    if (current == null || dirty || current.getVersion() < knownVersion.get()) {
+      current = rebuild();
+    }
+    return current;
+  }
+
+  private synchronized Snapshot rebuild() {
+    long version = knownVersion.get();
+    Snapshot current = snapshot;
+    if (current != null && !dirty && current.getVersion() >= version) {
+      return current;
+    }
+    dirty = false;
+
+    List<TopicEntity> topics = List.copyOf(topicRepository.findAllByDeletedTopicIsFalse());
+    Map<String, TopicEntity> topicsById = topics.stream()
+        .collect(Collectors.toUnmodifiableMap(TopicEntity::getId, Function.identity()));
+
+    TopicsResponse.Builder responseBuilder = TopicsResponse.newBuilder();
+    for (TopicEntity topic : topics) {
+      responseBuilder.addTopics(
+          TopicResponse.newBuilder().setId(topic.getId()).setName(topic.getName()).setSlug(topic.getSlug()));
+    }
+    TopicsResponse topicsResponse = responseBuilder.build();
+    topicsResponse.getSerializedSize();
+
+    snapshot = new Snapshot(version, topics, topicsById, topicsResponse);
+    log.info("Đã nạp lại danh mục chủ đề phiên bản {} ({} chủ đề)", version, topics.size());
+    return snapshot;
+  }
+
+  private long readVersion() {
+    try {
+      String version = redisService.getStrings(List.of(versionKey())).get(0);
+      return version != null ? Long.parseLong(version) : 0;
+    } catch (RuntimeException e) {
+      log.warn("Không đọc được phiên bản danh mục chủ đề: {}", e.getMessage());
+      return knownVersion.get();
+    }
+  }
+
+  private String versionKey() {
+    return redisService.setKey("", VERSION_KEY_TYPE);
+  }
+}
@@ -2,9 +2,15 @@ package com.service.post.specification;
 
 import org.springframework.data.jpa.domain.Specification;
 
+import com.service.post.config.SearchFunctionContributor;
 import com.service.post.entity.PostEntity;
 
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
 public class PostSpecification {
+  public static final int MIN_FULL_TEXT_LENGTH = 3;
+
   public static Specification<PostEntity> notDeleted() {
     return (root, _, cb) -> cb.isFalse(root.get("deletedPost"));
   }
@@ -19,6 +25,25 @@ public class PostSpecification {
         : cb.like(cb.lower(root.get("title")), "%" + search.toLowerCase() + "%");
   }
 
+  public static Specification<PostEntity> matchesSearch(String search) {
+    return (root, query, cb) -> {
+      if (search == null || search.isBlank()) {
+        return cb.conjunction();
+      }
+
+      String term = search.trim();
+      Predicate titleLike = hasTitleLike(term).toPredicate(root, query, cb);
+      if (term.length() < MIN_FULL_TEXT_LENGTH) {
+        return titleLike;
+      }
+
+      Predicate matched = cb.isTrue(cb.function(SearchFunctionContributor.MATCH_FUNCTION, Boolean.class,
+          root.get("searchVector"), cb.literal(term)));
+
+      return cb.or(matched, titleLike);
+    };
+  }
+
   public static Specification<PostEntity> hasTopicId(String topicId) {
     return (root, _, cb) -> (topicId == null || topicId.isEmpty())
         ? cb.conjunction()
@@ -30,4 +55,15 @@ public class PostSpecification {
         ? cb.conjunction()
         : cb.equal(root.get("publishedPost"), published);
   }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  public static Specification<PostEntity> seekAfter(String sortField, boolean ascending, Comparable value,
+      String lastId) {
+    return (root, _, cb) -> {
+      Expression<Comparable> sortPath = root.get(sortField);
+      Expression<String> idPath = root.get("id");
+      return cb.or(ascending ? cb.greaterThan(sortPath, value) : cb.lessThan(sortPath, value),
+          cb.and(cb.equal(sortPath, value), ascending ? cb.greaterThan(idPath, lastId) : cb.lessThan(idPath, lastId)));
+    };
+  }
 }
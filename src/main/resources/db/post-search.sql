@@ -0,0 +1,14 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS posts_search_vector_idx ON posts USING GIN (search_vector);
+
+CREATE INDEX IF NOT EXISTS posts_title_trgm_idx ON posts USING GIN (lower(title) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS posts_deleted_id_idx ON posts (id) WHERE is_deleted;
+
+CREATE INDEX IF NOT EXISTS topics_deleted_id_idx ON topics (id) WHERE is_deleted;
+
+ALTER TABLE outbox_messages ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+SELECT setval('outbox_messages_seq', GREATEST((SELECT last_value FROM outbox_messages_seq),
+    (SELECT COALESCE(MAX(id), 0) + 50 FROM outbox_messages)));
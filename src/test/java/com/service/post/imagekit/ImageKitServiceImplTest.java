@@ -0,0 +1,131 @@
+package com.service.post.imagekit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.service.post.dto.Base64UploadDto;
+import com.sun.net.httpserver.HttpServer;
+
+import io.imagekit.sdk.ImageKit;
+import io.imagekit.sdk.config.Configuration;
+import io.imagekit.sdk.models.results.Result;
+import io.imagekit.sdk.tasks.RestClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ImageKitServiceImplTest {
+  private static final Base64UploadDto UPLOAD = Base64UploadDto.builder().imageId("image-1").fileName("anh.png")
+      .folder("/posts").base64Data("iVBORw0KGgo=").build();
+
+  HttpServer server;
+  String apiBaseUrl;
+  String uploadBaseUrl;
+  ImageKitServiceImpl imageKitService;
+
+  volatile int responseStatus;
+  volatile Map<String, String> responseHeaders;
+  volatile String responseBody;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/", exchange -> {
+      exchange.getRequestBody().readAllBytes();
+      responseHeaders.forEach((name, value) -> exchange.getResponseHeaders().add(name, value));
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(responseStatus, body.length);
+      exchange.getResponseBody().write(body);
+      exchange.close();
+    });
+    server.start();
+
+    apiBaseUrl = RestClient.API_BASE_URL;
+    uploadBaseUrl = RestClient.UPLOAD_BASE_URL;
+    String stubUrl = "http://localhost:" + server.getAddress().getPort() + "/";
+    RestClient.API_BASE_URL = stubUrl;
+    RestClient.UPLOAD_BASE_URL = stubUrl;
+
+    ImageKit imageKit = ImageKit.getInstance();
+    imageKit.setConfig(new Configuration("public_test", "private_test", "https://ik.imagekit.io/test"));
+    imageKitService = new ImageKitServiceImpl(imageKit, new SimpleMeterRegistry());
+  }
+
+  @AfterEach
+  void tearDown() {
+    RestClient.API_BASE_URL = apiBaseUrl;
+    RestClient.UPLOAD_BASE_URL = uploadBaseUrl;
+    server.stop(0);
+  }
+
+  void respond(int status, Map<String, String> headers, String body) {
+    responseStatus = status;
+    responseHeaders = headers;
+    responseBody = body;
+  }
+
+  @Test
+  void uploadReturnsUploadedFile() {
+    respond(200, Map.of(), "{\"fileId\":\"file-1\",\"name\":\"anh.png\","
+        + "\"url\":\"https://ik.imagekit.io/test/posts/anh.png\"}");
+
+    Result result = imageKitService.uploadFromBase64(UPLOAD);
+
+    assertThat(result.getFileId()).isEqualTo("file-1");
+    assertThat(result.getUrl()).isEqualTo("https://ik.imagekit.io/test/posts/anh.png");
+  }
+
+  @Test
+  void rateLimitedUploadWaitsForReset() {
+    respond(429, Map.of("X-RateLimit-Reset", "1500"), "{\"message\":\"Too many requests\"}");
+
+    ImageKitException e = catchThrowableOfType(ImageKitException.class,
+        () -> imageKitService.uploadFromBase64(UPLOAD));
+
+    assertThat(e.isRetryable()).isTrue();
+    assertThat(e.isRateLimited()).isTrue();
+    assertThat(e.getRetryAfterMs()).isEqualTo(1500);
+  }
+
+  @Test
+  void rejectedUploadIsNotRetried() {
+    for (int status : new int[] { 400, 401, 403 }) {
+      respond(status, Map.of(), "{\"message\":\"Rejected\"}");
+
+      ImageKitException e = catchThrowableOfType(ImageKitException.class,
+          () -> imageKitService.uploadFromBase64(UPLOAD));
+
+      assertThat(e.isRetryable()).as("status %d", status).isFalse();
+      assertThat(e.isRateLimited()).as("status %d", status).isFalse();
+    }
+  }
+
+  @Test
+  void serverErrorIsRetried() {
+    respond(500, Map.of(), "{\"message\":\"Internal server error\"}");
+
+    ImageKitException e = catchThrowableOfType(ImageKitException.class,
+        () -> imageKitService.uploadFromBase64(UPLOAD));
+
+    assertThat(e.isRetryable()).isTrue();
+    assertThat(e.isRateLimited()).isFalse();
+    assertThat(e.getRetryAfterMs()).isEqualTo(-1);
+  }
+
+  @Test
+  void bulkDeleteReturnsDeletedFileIds() {
+    respond(200, Map.of(), "{\"successfullyDeletedFileIds\":[\"file-1\",\"file-2\"]}");
+
+    assertThat(imageKitService.deleteImages(List.of("file-1", "file-2"))).containsExactly("file-1", "file-2");
+  }
+}
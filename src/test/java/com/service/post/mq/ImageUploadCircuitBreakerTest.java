@@ -0,0 +1,121 @@
+package com.service.post.mq;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ImageUploadCircuitBreakerTest {
+  private static final int FAILURE_THRESHOLD = 3;
+  private static final long OPEN_MS = 30000;
+
+  MessageListenerContainer container;
+  ScheduledExecutorService scheduler;
+  SimpleMeterRegistry meterRegistry;
+  ImageUploadCircuitBreaker circuitBreaker;
+
+  List<Runnable> executed = new ArrayList<>();
+  List<Runnable> scheduled = new ArrayList<>();
+  AtomicInteger inFlight = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() {
+    container = mock(MessageListenerContainer.class);
+    when(container.isRunning()).thenReturn(true);
+    RabbitListenerEndpointRegistry registry = mock(RabbitListenerEndpointRegistry.class);
+    when(registry.getListenerContainer(Consumer.UPLOAD_LISTENER_ID)).thenReturn(container);
+
+    scheduler = mock(ScheduledExecutorService.class);
+    doAnswer(invocation -> executed.add(invocation.getArgument(0))).when(scheduler).execute(any());
+    when(scheduler.schedule(any(Runnable.class), anyLong(), any())).thenAnswer(invocation -> {
+      scheduled.add(invocation.getArgument(0));
+      return null;
+    });
+
+    meterRegistry = new SimpleMeterRegistry();
+    circuitBreaker = new ImageUploadCircuitBreaker(registry, scheduler, meterRegistry, FAILURE_THRESHOLD, OPEN_MS);
+    circuitBreaker.trackInFlight(inFlight::get);
+  }
+
+  ImageUploadCircuitBreaker.State state() {
+    double ordinal = meterRegistry.get("imagekit.upload.circuit.state").gauge().value();
+    return ImageUploadCircuitBreaker.State.values()[(int) ordinal];
+  }
+
+  void openBreaker() {
+    for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+      circuitBreaker.recordFailure();
+    }
+  }
+
+  @Test
+  void opensAfterConsecutiveFailures() {
+    for (int i = 0; i < FAILURE_THRESHOLD - 1; i++) {
+      circuitBreaker.recordFailure();
+    }
+    circuitBreaker.recordSuccess();
+    for (int i = 0; i < FAILURE_THRESHOLD - 1; i++) {
+      circuitBreaker.recordFailure();
+    }
+    assertThat(state()).isEqualTo(ImageUploadCircuitBreaker.State.CLOSED);
+
+    circuitBreaker.recordFailure();
+
+    assertThat(circuitBreaker.isOpen()).isTrue();
+    assertThat(executed).hasSize(1);
+    verify(scheduler).schedule(any(Runnable.class), eq(OPEN_MS), eq(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void stopsConsumerOnlyAfterInFlightUploadsSettle() {
+    inFlight.set(2);
+    openBreaker();
+
+    executed.get(0).run();
+    verify(container, never()).stop(any(Runnable.class));
+    assertThat(scheduled).hasSize(2);
+
+    inFlight.set(0);
+    scheduled.get(1).run();
+    verify(container).stop(any(Runnable.class));
+    verify(container, never()).stop();
+  }
+
+  @Test
+  void halfOpenClosesOnSuccessAndReopensOnFailure() {
+    openBreaker();
+    Runnable halfOpen = scheduled.get(0);
+
+    halfOpen.run();
+    assertThat(state()).isEqualTo(ImageUploadCircuitBreaker.State.HALF_OPEN);
+    verify(container).start();
+
+    circuitBreaker.recordFailure();
+    assertThat(state()).isEqualTo(ImageUploadCircuitBreaker.State.OPEN);
+
+    scheduled.get(scheduled.size() - 1).run();
+    assertThat(state()).isEqualTo(ImageUploadCircuitBreaker.State.HALF_OPEN);
+
+    circuitBreaker.recordSuccess();
+    assertThat(state()).isEqualTo(ImageUploadCircuitBreaker.State.CLOSED);
+    assertThat(circuitBreaker.isOpen()).isFalse();
+  }
+}
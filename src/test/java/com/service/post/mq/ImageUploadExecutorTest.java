@@ -0,0 +1,107 @@
+package com.service.post.mq;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import com.rabbitmq.client.Channel;
+import com.service.post.config.RabbitMQConfig;
+import com.service.post.dto.Base64UploadDto;
+import com.service.post.imagekit.ImageKitException;
+import com.service.post.imagekit.ImageKitService;
+import com.service.post.imagekit.ImagePreprocessor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ImageUploadExecutorTest {
+  private static final double RETRY_BUDGET_TOKENS = 2;
+
+  ImageKitService imageKitService;
+  ImageUploadCircuitBreaker circuitBreaker;
+  ImageRetryRouter imageRetryRouter;
+  Channel channel;
+  SimpleMeterRegistry meterRegistry;
+  Jackson2JsonMessageConverter jsonMessageConverter = new Jackson2JsonMessageConverter();
+  ImageUploadExecutor executor;
+
+  long deliveryTag;
+
+  @BeforeEach
+  void setUp() {
+    imageKitService = mock(ImageKitService.class);
+    circuitBreaker = mock(ImageUploadCircuitBreaker.class);
+    imageRetryRouter = mock(ImageRetryRouter.class);
+    when(imageRetryRouter.retry(anyString(), any(), anyString())).thenReturn(true);
+    when(imageRetryRouter.deadLetter(anyString(), any(), anyString())).thenReturn(true);
+    when(imageRetryRouter.defer(anyString(), any(), anyString())).thenReturn(true);
+    channel = mock(Channel.class);
+    meterRegistry = new SimpleMeterRegistry();
+
+    ExecutorService direct = mock(ExecutorService.class);
+    doAnswer(invocation -> {
+      ((Runnable) invocation.getArgument(0)).run();
+      return null;
+    }).when(direct).execute(any());
+
+    executor = new ImageUploadExecutor(imageKitService, new ImagePreprocessor(meterRegistry, false, 2048, 320, 0.82f),
+        mock(ImagePatchBuffer.class), circuitBreaker, imageRetryRouter, mock(ImagePipelineMetrics.class),
+        jsonMessageConverter, direct, direct, mock(ScheduledExecutorService.class), meterRegistry, 8, 1000, 30000, 0,
+        RETRY_BUDGET_TOKENS);
+  }
+
+  Message upload() {
+    Base64UploadDto dto = Base64UploadDto.builder().imageId("image-" + deliveryTag).postId("post-1")
+        .fileName("anh.png").base64Data("iVBORw0KGgo=").build();
+    MessageProperties properties = new MessageProperties();
+    properties.setDeliveryTag(++deliveryTag);
+    return jsonMessageConverter.toMessage(dto, properties);
+  }
+
+  @Test
+  void retriesStopWhenBudgetIsExhausted() throws IOException {
+    when(imageKitService.uploadFromBase64(any()))
+        .thenThrow(new ImageKitException("ImageKit quá tải", true, false, -1));
+
+    for (int i = 0; i < RETRY_BUDGET_TOKENS + 2; i++) {
+      executor.submit(upload(), channel);
+    }
+
+    verify(imageRetryRouter, times((int) RETRY_BUDGET_TOKENS)).retry(eq(RabbitMQConfig.UPLOAD_QUEUE_NAME), any(),
+        anyString());
+    verify(imageRetryRouter, times(2)).deadLetter(eq(RabbitMQConfig.UPLOAD_QUEUE_NAME), any(), anyString());
+    verify(circuitBreaker, times((int) RETRY_BUDGET_TOKENS + 2)).recordFailure();
+    verify(channel, times((int) RETRY_BUDGET_TOKENS + 2)).basicAck(anyLong(), eq(false));
+    assertThat(meterRegistry.get("imagekit.upload.retry-budget.exhausted").counter().count()).isEqualTo(2);
+    assertThat(meterRegistry.get("imagekit.upload.in-flight").gauge().value()).isZero();
+  }
+
+  @Test
+  void openBreakerDefersToRetryTierInsteadOfRequeueing() throws IOException {
+    when(circuitBreaker.isOpen()).thenReturn(true);
+
+    executor.submit(upload(), channel);
+
+    verify(imageRetryRouter).defer(eq(RabbitMQConfig.UPLOAD_QUEUE_NAME), any(), anyString());
+    verify(imageKitService, never()).uploadFromBase64(any());
+    verify(channel).basicAck(1, false);
+    verify(channel, never()).basicNack(anyLong(), eq(false), eq(true));
+  }
+}
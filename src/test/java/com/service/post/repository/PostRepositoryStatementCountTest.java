@@ -0,0 +1,118 @@
+package com.service.post.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.service.post.dto.PostSummaryDto;
+import com.service.post.entity.ImageEntity;
+import com.service.post.entity.PostEntity;
+import com.service.post.entity.TopicEntity;
+import com.service.post.specification.PostSpecification;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PostRepositoryStatementCountTest {
+  private static final String USER_ID = "00000000-0000-0000-0000-000000000001";
+  private static final int POSTS = 30;
+
+  @Autowired
+  EntityManager entityManager;
+
+  @Autowired
+  PostRepository postRepository;
+
+  Statistics statistics;
+  Specification<PostEntity> spec;
+  TopicEntity topic;
+
+  @BeforeEach
+  void setUp() {
+    String suffix = UUID.randomUUID().toString();
+    topic = TopicEntity.builder().name("Chủ đề " + suffix).slug("chu-de-" + suffix).createdById(USER_ID)
+        .updatedById(USER_ID).build();
+    entityManager.persist(topic);
+
+    for (int i = 0; i < POSTS; i++) {
+      PostEntity post = PostEntity.builder().title("Bài viết " + i + " " + suffix).slug("bai-viet-" + i + "-" + suffix)
+          .createdById(USER_ID).updatedById(USER_ID).topic(topic).build();
+      entityManager.persist(post);
+      for (int sortOrder = 1; sortOrder <= 3; sortOrder++) {
+        entityManager.persist(ImageEntity.builder().post(post).sortOrder(sortOrder)
+            .url("https://ik.imagekit.io/bai-viet-" + i + "_" + sortOrder + ".png")
+            .thumbnailImage(i % 2 == 0 && sortOrder == 2).build());
+      }
+    }
+    entityManager.flush();
+    entityManager.clear();
+
+    spec = PostSpecification.notDeleted().and(PostSpecification.hasTopicId(topic.getId()));
+    statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    statistics.setStatisticsEnabled(true);
+  }
+
+  @Test
+  void findSummariesUsesOneStatementPerPage() {
+    for (int pageSize : new int[] { 1, 10, POSTS }) {
+      entityManager.clear();
+      statistics.clear();
+
+      List<PostSummaryDto> page = postRepository.findSummaries(spec, Sort.by("id"), null, 0, pageSize);
+
+      assertThat(page).hasSize(pageSize);
+      assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void findSummariesFallsBackToFirstImageWithoutMarkedThumbnail() {
+    List<PostSummaryDto> page = postRepository.findSummaries(spec, Sort.by("id"), null, 0, POSTS);
+
+    assertThat(page).hasSize(POSTS);
+    Map<String, String> thumbnailByTitle = page.stream()
+        .collect(Collectors.toMap(PostSummaryDto::getTitle, PostSummaryDto::getThumbnailUrl));
+    for (int i = 0; i < POSTS; i++) {
+      String title = thumbnailByTitle.keySet().stream().filter(t -> t.startsWith("Bài viết " + i + " ")).findFirst()
+          .orElseThrow();
+      int expected = i % 2 == 0 ? 2 : 1;
+      assertThat(thumbnailByTitle.get(title)).endsWith("bai-viet-" + i + "_" + expected + ".png");
+    }
+  }
+
+  @Test
+  void findSummariesReturnsOneRowWhenThumbnailCandidatesTie() {
+    for (boolean marked : new boolean[] { false, true }) {
+      PostEntity post = PostEntity.builder().title("Bài viết trùng " + marked).slug("bai-viet-trung-" + marked + "-"
+          + UUID.randomUUID()).createdById(USER_ID).updatedById(USER_ID).topic(topic).build();
+      entityManager.persist(post);
+      for (String name : new String[] { "a", "b" }) {
+        entityManager.persist(ImageEntity.builder().post(post).sortOrder(1).thumbnailImage(marked)
+            .url("https://ik.imagekit.io/bai-viet-trung-" + marked + "_" + name + ".png").build());
+      }
+    }
+    entityManager.flush();
+    entityManager.clear();
+
+    List<PostSummaryDto> page = postRepository.findSummaries(spec, Sort.by("id"), null, 0, POSTS + 10);
+
+    assertThat(page).hasSize(POSTS + 2);
+    assertThat(page).filteredOn(summary -> summary.getTitle().startsWith("Bài viết trùng "))
+        .allSatisfy(summary -> assertThat(summary.getThumbnailUrl())
+            .matches(".*bai-viet-trung-(true|false)_[ab]\\.png"));
+  }
+}